@@ -11,6 +11,8 @@ GLASSFISH_HOME=${GLASSFISH_HOME:-"$HOME/Downloads/glassfish8"}
 ADMIN_PORT=${ADMIN_PORT:-"4848"}
 HTTP_PORT=${HTTP_PORT:-"8080"}
 DOMAIN_NAME=${DOMAIN_NAME:-"domain1"}
+CDS_ARCHIVE=${CDS_ARCHIVE:-"${GLASSFISH_HOME}/glassfish/domains/${DOMAIN_NAME}/config/${PROJECT_NAME}.jsa"}
+READY_TIMEOUT=${READY_TIMEOUT:-"120"}
 
 # Colors for output
 RED='\033[0;31m'
@@ -96,17 +98,25 @@ deploy_application() {
     fi
 }
 
+# Function to wait until the health endpoint reports ready (it returns 503 during warm-up)
+wait_until_ready() {
+    HEALTH_URL="http://localhost:${HTTP_PORT}/${PROJECT_NAME}/api/hello/health"
+    
+    for ((i = 0; i < READY_TIMEOUT; i++)); do
+        if curl -s -f "${HEALTH_URL}" > /dev/null; then
+            return 0
+        fi
+        sleep 1
+    done
+    return 1
+}
+
 # Function to test deployment
 test_deployment() {
     print_status "Testing deployment..."
     
-    # Wait a moment for deployment to complete
-    sleep 3
-    
-    # Test health endpoint
-    HEALTH_URL="http://localhost:${HTTP_PORT}/${PROJECT_NAME}/api/hello/health"
-    
-    if curl -s -f "${HEALTH_URL}" > /dev/null; then
+    # Wait for warm-up to finish
+    if wait_until_ready; then
         print_status "Health check passed"
         print_status "Application is available at: http://localhost:${HTTP_PORT}/${PROJECT_NAME}/"
         print_status "API endpoints available at: http://localhost:${HTTP_PORT}/${PROJECT_NAME}/api/hello/"
@@ -116,6 +126,42 @@ test_deployment() {
     fi
 }
 
+# Function to build a dynamic AppCDS archive for the GlassFish JVM.
+# Runs the server once with -XX:ArchiveClassesAtExit, drives the warm-up and a few requests,
+# then restarts it with -XX:SharedArchiveFile so later starts map the loaded classes directly.
+# Classes loaded by the web application class loader (the WAR itself) are not archived by the JDK;
+# the archive covers the server, Jakarta EE implementation and JDK classes that dominate startup.
+create_cds_archive() {
+    ASADMIN="${GLASSFISH_HOME}/bin/asadmin"
+    CDS_OPTION_ESCAPED=$(echo "${CDS_ARCHIVE}" | sed 's/:/\\:/g')
+    
+    print_status "Creating AppCDS archive at ${CDS_ARCHIVE}..."
+    "${ASADMIN}" delete-jvm-options "-XX\\:SharedArchiveFile=${CDS_OPTION_ESCAPED}" > /dev/null 2>&1 || true
+    "${ASADMIN}" create-jvm-options "-XX\\:ArchiveClassesAtExit=${CDS_OPTION_ESCAPED}"
+    "${ASADMIN}" restart-domain ${DOMAIN_NAME}
+    
+    if ! wait_until_ready; then
+        print_error "Application did not become ready for the CDS training run"
+        exit 1
+    fi
+    BASE_URL="http://localhost:${HTTP_PORT}/${PROJECT_NAME}/api/hello"
+    curl -s "${BASE_URL}/greetings" > /dev/null
+    curl -s "${BASE_URL}/greetings?fields=id,name,createdAt" > /dev/null
+    curl -s "${BASE_URL}/stats" > /dev/null
+    
+    # The archive is written when the JVM exits
+    "${ASADMIN}" stop-domain ${DOMAIN_NAME}
+    "${ASADMIN}" delete-jvm-options "-XX\\:ArchiveClassesAtExit=${CDS_OPTION_ESCAPED}" > /dev/null 2>&1 || true
+    
+    if [ ! -f "${CDS_ARCHIVE}" ]; then
+        print_error "AppCDS archive was not created"
+        exit 1
+    fi
+    "${ASADMIN}" create-jvm-options "-XX\\:SharedArchiveFile=${CDS_OPTION_ESCAPED}"
+    "${ASADMIN}" start-domain ${DOMAIN_NAME}
+    print_status "AppCDS archive created and enabled"
+}
+
 # Function to show usage
 show_usage() {
     echo "Usage: $0 [options]"
@@ -125,12 +171,15 @@ show_usage() {
     echo "  -d, --deploy-only   Only deploy (skip build)"
     echo "  -s, --start         Start GlassFish if not running"
     echo "  -t, --test          Test deployment after deploy"
+    echo "  -c, --cds           Build and enable an AppCDS archive after deploy"
     echo ""
     echo "Environment Variables:"
     echo "  GLASSFISH_HOME      Path to GlassFish installation (default: /usr/local/glassfish8)"
     echo "  ADMIN_PORT          GlassFish admin port (default: 4848)"
     echo "  HTTP_PORT           GlassFish HTTP port (default: 8080)"
     echo "  DOMAIN_NAME         GlassFish domain name (default: domain1)"
+    echo "  CDS_ARCHIVE         AppCDS archive path (default: <domain>/config/${PROJECT_NAME}.jsa)"
+    echo "  READY_TIMEOUT       Seconds to wait for the application to report ready (default: 120)"
 }
 
 # Parse command line arguments
@@ -138,6 +187,7 @@ BUILD_ONLY=false
 DEPLOY_ONLY=false
 START_GLASSFISH=false
 TEST_DEPLOYMENT=false
+CREATE_CDS=false
 
 while [[ $# -gt 0 ]]; do
     case $1 in
@@ -161,6 +211,10 @@ while [[ $# -gt 0 ]]; do
             TEST_DEPLOYMENT=true
             shift
             ;;
+        -c|--cds)
+            CREATE_CDS=true
+            shift
+            ;;
         *)
             print_error "Unknown option: $1"
             show_usage
@@ -205,6 +259,11 @@ if [ "$BUILD_ONLY" = false ]; then
     deploy_application
 fi
 
+# Create AppCDS archive
+if [ "$CREATE_CDS" = true ] && [ "$BUILD_ONLY" = false ]; then
+    create_cds_archive
+fi
+
 # Test deployment
 if [ "$TEST_DEPLOYMENT" = true ] && [ "$BUILD_ONLY" = false ]; then
     test_deployment
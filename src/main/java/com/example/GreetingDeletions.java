@@ -0,0 +1,36 @@
+package com.example;
+
+import com.example.repository.GreetingRepository;
+import com.example.repository.GreetingTypedSummary;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+import java.util.List;
+
+/**
+ * Transactional bulk deletes, kept in their own bean so {@link HelloService} calls them through the
+ * CDI proxy and the transaction commits before the call returns
+ */
+@ApplicationScoped
+public class GreetingDeletions {
+
+    @Inject
+    private GreetingRepository greetingRepository;
+
+    /**
+     * Delete every greeting for a name in one transaction
+     *
+     * Deletes exactly the greetings it read, so a greeting created concurrently is left alone
+     *
+     * @return the deleted greetings
+     */
+    @Transactional
+    public List<GreetingTypedSummary> deleteByName(String name) {
+        List<GreetingTypedSummary> deleted = greetingRepository.findTypedSummariesByName(name);
+        for (GreetingTypedSummary summary : deleted) {
+            greetingRepository.deleteById(summary.id());
+        }
+        return deleted;
+    }
+}
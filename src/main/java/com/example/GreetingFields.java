@@ -0,0 +1,117 @@
+package com.example;
+
+import com.example.entity.Greeting;
+import com.example.repository.GreetingSummary;
+import com.example.repository.GreetingTypedSummary;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sparse fieldset for the greeting list endpoints.
+ *
+ * Parses the {@code fields} query parameter, picks the narrowest repository projection that
+ * covers the requested fields and renders each row with only those fields.
+ */
+final class GreetingFields {
+
+    static final List<String> SUPPORTED = List.of("id", "name", "message", "greetingType", "createdAt");
+
+    /**
+     * Repository projections ordered from narrowest to widest
+     */
+    enum Projection {
+        SUMMARY,
+        TYPED_SUMMARY,
+        FULL
+    }
+
+    private final List<String> fields;
+    private final Projection projection;
+
+    private GreetingFields(List<String> fields, Projection projection) {
+        this.fields = fields;
+        this.projection = projection;
+    }
+
+    /**
+     * Parse a comma separated field list. A null or blank value selects the full entity.
+     *
+     * @throws IllegalArgumentException if a field is not a Greeting attribute
+     */
+    static GreetingFields parse(String raw) {
+        if (raw == null || raw.trim().isEmpty()) {
+            return new GreetingFields(SUPPORTED, Projection.FULL);
+        }
+
+        Set<String> requested = new LinkedHashSet<>();
+        for (String field : raw.split(",")) {
+            String trimmed = field.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!SUPPORTED.contains(trimmed)) {
+                throw new IllegalArgumentException("Unknown field: " + trimmed + ". Supported fields: " + SUPPORTED);
+            }
+            requested.add(trimmed);
+        }
+        if (requested.isEmpty()) {
+            return new GreetingFields(SUPPORTED, Projection.FULL);
+        }
+
+        // The message is derived from the name and type, so the typed summary covers every field
+        Projection projection = Projection.SUMMARY;
+        if (requested.contains("message") || requested.contains("greetingType")) {
+            projection = Projection.TYPED_SUMMARY;
+        }
+        return new GreetingFields(List.copyOf(requested), projection);
+    }
+
+    Projection projection() {
+        return projection;
+    }
+
+    /**
+     * Render projected rows keeping only the requested fields, in request order
+     */
+    List<Map<String, Object>> render(List<?> rows) {
+        List<Map<String, Object>> rendered = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (String field : fields) {
+                values.put(field, value(row, field));
+            }
+            rendered.add(values);
+        }
+        return rendered;
+    }
+
+    private static Object value(Object row, String field) {
+        return switch (row) {
+            case Greeting g -> switch (field) {
+                case "id" -> g.getId();
+                case "name" -> g.getName();
+                case "message" -> g.getMessage();
+                case "greetingType" -> g.getGreetingType();
+                default -> g.getCreatedAt();
+            };
+            case GreetingTypedSummary s -> switch (field) {
+                case "id" -> s.id();
+                case "name" -> s.name();
+                case "message" -> s.message();
+                case "greetingType" -> s.greetingType();
+                default -> s.createdAt();
+            };
+            case GreetingSummary s -> switch (field) {
+                case "id" -> s.id();
+                case "name" -> s.name();
+                default -> s.createdAt();
+            };
+            default -> throw new IllegalArgumentException("Unsupported projection: " + row.getClass().getName());
+        };
+    }
+}
@@ -1,17 +1,34 @@
 package com.example;
 
+import com.example.changelog.GreetingChangeLog;
 import com.example.entity.Greeting;
+import com.example.feed.GreetingFeed;
+import com.example.repository.WritesSuspendedException;
+import com.example.snapshot.GreetingSnapshots;
+import com.example.snapshot.SnapshotCounts;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
 import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
 import java.util.logging.Logger;
@@ -29,12 +46,29 @@ public class HelloResource {
     @Inject
     private HelloService helloService;
 
+    @Inject
+    private GreetingFeed greetingFeed;
+
+    @Inject
+    private StartupWarmup startupWarmup;
+
+    @Inject
+    private GreetingChangeLog greetingChangeLog;
+
+    @Inject
+    private GreetingSnapshots greetingSnapshots;
+
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     public Response hello(@QueryParam("name") String name) {
         logger.info("Hello endpoint called with name: " + name);
         
-        String message = helloService.createGreeting(name);
+        String message;
+        try {
+            message = helloService.createGreeting(name);
+        } catch (WritesSuspendedException e) {
+            return writesSuspended(e);
+        }
         
         return Response.ok(new HelloResponse(message)).build();
     }
@@ -45,7 +79,12 @@ public class HelloResource {
     public Response formalHello(@QueryParam("name") String name) {
         logger.info("Formal hello endpoint called with name: " + name);
         
-        String message = helloService.createFormalGreeting(name);
+        String message;
+        try {
+            message = helloService.createFormalGreeting(name);
+        } catch (WritesSuspendedException e) {
+            return writesSuspended(e);
+        }
         
         return Response.ok(new HelloResponse(message)).build();
     }
@@ -53,18 +92,34 @@ public class HelloResource {
     @GET
     @Path("/greetings")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getAllGreetings() {
-        logger.info("Get all greetings endpoint called");
+    public Response getAllGreetings(@QueryParam("fields") String fields) {
+        logger.info("Get all greetings endpoint called with fields: " + fields);
         
-        List<Greeting> greetings = helloService.getAllGreetings();
+        GreetingFields selection;
+        try {
+            selection = GreetingFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse(e.getMessage())).build();
+        }
+        
+        if (fields == null) {
+            return Response.ok(helloService.getAllGreetings()).build();
+        }
         
-        return Response.ok(greetings).build();
+        List<?> rows = switch (selection.projection()) {
+            case SUMMARY -> helloService.getAllGreetingSummaries();
+            case TYPED_SUMMARY -> helloService.getAllTypedGreetingSummaries();
+            case FULL -> helloService.getAllGreetings();
+        };
+        
+        return Response.ok(selection.render(rows)).build();
     }
 
     @GET
     @Path("/greetings/by-name")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getGreetingsByName(@QueryParam("name") String name) {
+    public Response getGreetingsByName(@QueryParam("name") String name, @QueryParam("fields") String fields) {
         logger.info("Get greetings by name endpoint called with name: " + name);
         
         if (name == null || name.trim().isEmpty()) {
@@ -72,9 +127,183 @@ public class HelloResource {
                     .entity(new ErrorResponse("Name parameter is required")).build();
         }
         
-        List<Greeting> greetings = helloService.getGreetingsByName(name.trim());
+        GreetingFields selection;
+        try {
+            selection = GreetingFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse(e.getMessage())).build();
+        }
+        
+        if (fields == null) {
+            return Response.ok(helloService.getGreetingsByName(name.trim())).build();
+        }
+        
+        List<?> rows = switch (selection.projection()) {
+            case SUMMARY -> helloService.getGreetingSummariesByName(name.trim());
+            case TYPED_SUMMARY -> helloService.getTypedGreetingSummariesByName(name.trim());
+            case FULL -> helloService.getGreetingsByName(name.trim());
+        };
+        
+        return Response.ok(selection.render(rows)).build();
+    }
+
+    @GET
+    @Path("/greetings/search")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response searchGreetings(@QueryParam("q") String query, @QueryParam("fields") String fields) {
+        logger.info("Search greetings endpoint called with query: " + query);
+        
+        if (query == null || query.trim().isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Query parameter q is required")).build();
+        }
+        
+        GreetingFields selection;
+        try {
+            selection = GreetingFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse(e.getMessage())).build();
+        }
+        
+        if (fields == null) {
+            return Response.ok(helloService.searchGreetingsByName(query.trim())).build();
+        }
+        
+        List<?> rows = switch (selection.projection()) {
+            case SUMMARY -> helloService.searchGreetingSummariesByName(query.trim());
+            case TYPED_SUMMARY -> helloService.searchTypedGreetingSummariesByName(query.trim());
+            case FULL -> helloService.searchGreetingsByName(query.trim());
+        };
+        
+        return Response.ok(selection.render(rows)).build();
+    }
+
+    @GET
+    @Path("/greetings/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void streamGreetings(@Context SseEventSink sink,
+                                @Context Sse sse,
+                                @HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) String lastEventId,
+                                @QueryParam("name") String name,
+                                @QueryParam("type") String type) {
+        logger.info("Greeting stream endpoint called with name: " + name + ", type: " + type
+                + ", Last-Event-ID: " + lastEventId);
+        
+        Greeting.GreetingType greetingType = null;
+        if (type != null && !type.trim().isEmpty()) {
+            try {
+                greetingType = Greeting.GreetingType.valueOf(type.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unknown greeting type: " + type);
+            }
+        }
+        
+        Long resumeFrom = null;
+        if (lastEventId != null && !lastEventId.trim().isEmpty()) {
+            try {
+                resumeFrom = Long.valueOf(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                logger.warning("Ignoring malformed Last-Event-ID: " + lastEventId);
+            }
+        }
+        
+        String nameFilter = (name == null || name.trim().isEmpty()) ? null : name.trim();
+        greetingFeed.subscribe(sink, sse, resumeFrom, nameFilter, greetingType);
+    }
+
+    @GET
+    @Path("/changes")
+    @Produces({MediaType.APPLICATION_OCTET_STREAM, MediaType.APPLICATION_JSON})
+    public Response getChanges(@QueryParam("fromOffset") @DefaultValue("0") long fromOffset,
+                               @QueryParam("maxBytes") @DefaultValue("1048576") long maxBytes) {
+        logger.info("Changes endpoint called with fromOffset: " + fromOffset + ", maxBytes: " + maxBytes);
+        
+        long startOffset = greetingChangeLog.startOffset();
+        if (fromOffset < startOffset) {
+            return Response.status(Response.Status.GONE)
+                    .type(MediaType.APPLICATION_JSON)
+                    .header("X-Start-Offset", startOffset)
+                    .entity(new ErrorResponse("Offset " + fromOffset + " has been removed by retention, oldest offset is " + startOffset))
+                    .build();
+        }
+        if (maxBytes <= 0) {
+            return Response.status(Response.Status.BAD_REQUEST).type(MediaType.APPLICATION_JSON)
+                    .entity(new ErrorResponse("maxBytes must be positive")).build();
+        }
+        
+        long nextOffset;
+        try {
+            nextOffset = greetingChangeLog.nextOffset(fromOffset, maxBytes);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).type(MediaType.APPLICATION_JSON)
+                    .entity(new ErrorResponse(e.getMessage())).build();
+        } catch (IllegalStateException e) {
+            // The segment was deleted by retention between the start offset check and the read
+            return Response.status(Response.Status.GONE).type(MediaType.APPLICATION_JSON)
+                    .header("X-Start-Offset", greetingChangeLog.startOffset())
+                    .entity(new ErrorResponse(e.getMessage())).build();
+        }
+        
+        StreamingOutput body = out -> greetingChangeLog.writeTo(fromOffset, nextOffset, out);
+        return Response.ok(body, MediaType.APPLICATION_OCTET_STREAM)
+                .header("X-Start-Offset", startOffset)
+                .header("X-Next-Offset", nextOffset)
+                .header("X-End-Offset", greetingChangeLog.endOffset())
+                .build();
+    }
+
+    @GET
+    @Path("/admin/snapshot")
+    @Produces(MediaType.APPLICATION_OCTET_STREAM)
+    public Response dumpSnapshot() {
+        logger.info("Snapshot dump endpoint called");
+        
+        if (!greetingSnapshots.isAdminEnabled()) {
+            return snapshotAdminDisabled();
+        }
+        
+        StreamingOutput body = out -> greetingSnapshots.dump(out);
+        return Response.ok(body)
+                .header("Content-Disposition", "attachment; filename=\"greetings.snapshot\"")
+                .build();
+    }
+
+    @POST
+    @Path("/admin/snapshot")
+    @Consumes(MediaType.APPLICATION_OCTET_STREAM)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response restoreSnapshot(InputStream snapshot) {
+        logger.info("Snapshot restore endpoint called");
+        
+        if (!greetingSnapshots.isAdminEnabled()) {
+            return snapshotAdminDisabled();
+        }
         
-        return Response.ok(greetings).build();
+        try {
+            SnapshotCounts counts = greetingSnapshots.restore(snapshot);
+            return Response.ok(counts).build();
+        } catch (IOException e) {
+            logger.warning("Snapshot restore failed: " + e.getMessage());
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Invalid snapshot: " + e.getMessage())).build();
+        } catch (SQLException e) {
+            logger.severe("Snapshot restore failed: " + e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(new ErrorResponse("Snapshot restore failed: " + e.getMessage())).build();
+        }
+    }
+
+    private static Response writesSuspended(WritesSuspendedException e) {
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .header("Retry-After", 5)
+                .entity(new ErrorResponse(e.getMessage())).build();
+    }
+
+    private static Response snapshotAdminDisabled() {
+        return Response.status(Response.Status.NOT_FOUND)
+                .entity(new ErrorResponse("Snapshot administration is disabled")).build();
     }
 
     @GET
@@ -108,6 +337,14 @@ public class HelloResource {
     @Path("/health")
     @Produces(MediaType.APPLICATION_JSON)
     public Response health() {
+        if (startupWarmup.isFailed()) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .entity(new HealthResponse("DOWN", "Jakarta EE 11 Application")).build();
+        }
+        if (!startupWarmup.isReady()) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .entity(new HealthResponse("STARTING", "Jakarta EE 11 Application")).build();
+        }
         return Response.ok(new HealthResponse("UP", "Jakarta EE 11 Application")).build();
     }
     
@@ -133,7 +370,12 @@ public class HelloResource {
     public Response deleteGreeting(@PathParam("id") Long id) {
         logger.info("Delete greeting endpoint called with ID: " + id);
         
-        boolean deleted = helloService.deleteGreeting(id);
+        boolean deleted;
+        try {
+            deleted = helloService.deleteGreeting(id);
+        } catch (WritesSuspendedException e) {
+            return writesSuspended(e);
+        }
         
         if (deleted) {
             return Response.ok(new SuccessResponse("Greeting deleted successfully")).build();
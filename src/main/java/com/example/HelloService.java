@@ -1,8 +1,15 @@
 package com.example;
 
 import com.example.entity.Greeting;
+import com.example.event.GreetingEvent;
+import com.example.repository.GreetingQueries;
+import com.example.repository.GreetingReadRepository;
 import com.example.repository.GreetingRepository;
+import com.example.repository.GreetingSummary;
+import com.example.repository.GreetingTypedSummary;
+import com.example.repository.GreetingWriteGate;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 
 import java.time.LocalDateTime;
@@ -23,17 +30,47 @@ public class HelloService {
     @Inject
     private GreetingRepository greetingRepository;
 
+    @Inject
+    private GreetingReadRepository greetingReadRepository;
+
+    @Inject
+    private ReadReplicaPolicy readReplicaPolicy;
+
+    @Inject
+    private Event<GreetingEvent> greetingEvents;
+
+    @Inject
+    private GreetingWriteGate writeGate;
+
+    @Inject
+    private GreetingDeletions greetingDeletions;
+
+    /**
+     * Query source for reads: the replica unless replicas are off or this session wrote recently
+     */
+    private GreetingQueries reads() {
+        return readReplicaPolicy.useReplica() ? greetingReadRepository : greetingRepository;
+    }
+
     public String createGreeting(String name) {
         logger.info("Creating greeting for: " + name);
         
         String processedName = (name == null || name.trim().isEmpty()) ? "Anonymous" : name.trim();
-        String message = "Hello, " + processedName + "!";
-        
-        // Save greeting to database
-        Greeting greeting = new Greeting(processedName, message, Greeting.GreetingType.CASUAL);
-        greetingRepository.save(greeting);
+
+        // Save greeting to database; the message is derived from the type and name
+        Greeting greeting = new Greeting(processedName, Greeting.GreetingType.CASUAL);
+        String message = greeting.getMessage();
+        Greeting saved;
+        writeGate.enter();
+        try {
+            saved = greetingRepository.save(greeting);
+            readReplicaPolicy.recordWrite();
+            greetingEvents.fire(GreetingEvent.created(saved));
+        } finally {
+            writeGate.exit();
+        }
         
-        logger.info("Greeting saved to database: " + greeting);
+        logger.info("Greeting saved to database: " + saved);
         
         return message;
     }
@@ -42,13 +79,21 @@ public class HelloService {
         logger.info("Creating formal greeting for: " + name);
         
         String processedName = (name == null || name.trim().isEmpty()) ? "Anonymous" : name.trim();
-        String message = "Good day, " + processedName + "!";
-        
-        // Save formal greeting to database
-        Greeting greeting = new Greeting(processedName, message, Greeting.GreetingType.FORMAL);
-        greetingRepository.save(greeting);
+
+        // Save formal greeting to database; the message is derived from the type and name
+        Greeting greeting = new Greeting(processedName, Greeting.GreetingType.FORMAL);
+        String message = greeting.getMessage();
+        Greeting saved;
+        writeGate.enter();
+        try {
+            saved = greetingRepository.save(greeting);
+            readReplicaPolicy.recordWrite();
+            greetingEvents.fire(GreetingEvent.created(saved));
+        } finally {
+            writeGate.exit();
+        }
         
-        logger.info("Formal greeting saved to database: " + greeting);
+        logger.info("Formal greeting saved to database: " + saved);
         
         return message;
     }
@@ -58,7 +103,7 @@ public class HelloService {
      */
     public List<Greeting> getAllGreetings() {
         logger.info("Retrieving all greetings from database");
-        return greetingRepository.findAll().collect(Collectors.toList());
+        return reads().findAll().collect(Collectors.toList());
     }
     
     /**
@@ -66,7 +111,7 @@ public class HelloService {
      */
     public List<Greeting> getGreetingsByName(String name) {
         logger.info("Retrieving greetings by name: " + name);
-        return greetingRepository.findByName(name);
+        return reads().findByName(name);
     }
     
     /**
@@ -74,7 +119,7 @@ public class HelloService {
      */
     public GreetingStats getGreetingStats() {
         logger.info("Retrieving greeting statistics");
-        long totalGreetings = greetingRepository.findAll().count();
+        long totalGreetings = reads().countAll();
         return new GreetingStats(totalGreetings);
     }
     
@@ -83,7 +128,7 @@ public class HelloService {
      */
     public long getGreetingCountByName(String name) {
         logger.info("Getting greeting count for name: " + name);
-        return greetingRepository.countByName(name);
+        return reads().countByName(name);
     }
     
     /**
@@ -91,7 +136,7 @@ public class HelloService {
      */
     public Optional<Greeting> getGreetingById(Long id) {
         logger.info("Retrieving greeting by ID: " + id);
-        return greetingRepository.findById(id);
+        return reads().findById(id);
     }
     
     /**
@@ -99,12 +144,19 @@ public class HelloService {
      */
     public boolean deleteGreeting(Long id) {
         logger.info("Deleting greeting by ID: " + id);
-        Optional<Greeting> greeting = greetingRepository.findById(id);
-        if (greeting.isPresent()) {
-            greetingRepository.deleteById(id);
-            return true;
+        writeGate.enter();
+        try {
+            Optional<Greeting> greeting = greetingRepository.findById(id);
+            if (greeting.isPresent()) {
+                greetingRepository.deleteById(id);
+                readReplicaPolicy.recordWrite();
+                greetingEvents.fire(GreetingEvent.deleted(greeting.get()));
+                return true;
+            }
+            return false;
+        } finally {
+            writeGate.exit();
         }
-        return false;
     }
     
     /**
@@ -113,7 +165,7 @@ public class HelloService {
      */
     public List<Greeting> getOrderedGreetings() {
         logger.info("Retrieving greetings ordered by creation date");
-        return greetingRepository.findAllByOrderByCreatedAtDesc();
+        return reads().findAllByOrderByCreatedAtDesc();
     }
     
     /**
@@ -122,7 +174,7 @@ public class HelloService {
      */
     public List<Greeting> searchGreetingsByName(String nameSubstring) {
         logger.info("Searching greetings by name containing: " + nameSubstring);
-        return greetingRepository.findByNameContainingIgnoreCase(nameSubstring);
+        return reads().findByNameContainingIgnoreCase(nameSubstring);
     }
     
     /**
@@ -131,7 +183,7 @@ public class HelloService {
      */
     public List<Greeting> getGreetingsByNamePrefix(String prefix) {
         logger.info("Getting greetings by name prefix: " + prefix);
-        return greetingRepository.findByNamePrefix(prefix);
+        return reads().findByNamePrefix(prefix);
     }
     
     /**
@@ -140,16 +192,78 @@ public class HelloService {
      */
     public boolean greetingExistsForName(String name) {
         logger.info("Checking if greeting exists for name: " + name);
-        return greetingRepository.existsByName(name);
+        return reads().existsByName(name);
     }
     
     /**
      * Delete all greetings for a specific name
-     * Demonstrates Jakarta Data delete methods
+     * Deletes exactly the greetings it read, in one transaction, so every deletion gets a DELETED event
+     * and a greeting created concurrently is left alone rather than deleted unannounced.
+     * The write gate is held until the transaction has committed and the events have fired.
      */
     public void deleteGreetingsByName(String name) {
         logger.info("Deleting all greetings for name: " + name);
-        greetingRepository.deleteByName(name);
+        writeGate.enter();
+        try {
+            List<GreetingTypedSummary> deleted = greetingDeletions.deleteByName(name);
+            readReplicaPolicy.recordWrite();
+            for (GreetingTypedSummary summary : deleted) {
+                Greeting greeting = new Greeting(summary.name(), summary.greetingType());
+                greeting.setId(summary.id());
+                greeting.setCreatedAt(summary.createdAt());
+                greetingEvents.fire(GreetingEvent.deleted(greeting));
+            }
+        } finally {
+            writeGate.exit();
+        }
+    }
+    
+    /**
+     * Get summary projections (id, name, createdAt) of all greetings
+     */
+    public List<GreetingSummary> getAllGreetingSummaries() {
+        logger.info("Retrieving greeting summaries from database");
+        return reads().findAllSummaries();
+    }
+    
+    /**
+     * Get typed summary projections (id, name, greetingType, createdAt) of all greetings
+     */
+    public List<GreetingTypedSummary> getAllTypedGreetingSummaries() {
+        logger.info("Retrieving typed greeting summaries from database");
+        return reads().findAllTypedSummaries();
+    }
+    
+    /**
+     * Get summary projections of greetings by name
+     */
+    public List<GreetingSummary> getGreetingSummariesByName(String name) {
+        logger.info("Retrieving greeting summaries by name: " + name);
+        return reads().findSummariesByName(name);
+    }
+    
+    /**
+     * Get typed summary projections of greetings by name
+     */
+    public List<GreetingTypedSummary> getTypedGreetingSummariesByName(String name) {
+        logger.info("Retrieving typed greeting summaries by name: " + name);
+        return reads().findTypedSummariesByName(name);
+    }
+    
+    /**
+     * Search summary projections of greetings by name containing a substring (case-insensitive)
+     */
+    public List<GreetingSummary> searchGreetingSummariesByName(String nameSubstring) {
+        logger.info("Searching greeting summaries by name containing: " + nameSubstring);
+        return reads().findSummariesByNameContaining(nameSubstring);
+    }
+    
+    /**
+     * Search typed summary projections of greetings by name containing a substring (case-insensitive)
+     */
+    public List<GreetingTypedSummary> searchTypedGreetingSummariesByName(String nameSubstring) {
+        logger.info("Searching typed greeting summaries by name containing: " + nameSubstring);
+        return reads().findTypedSummariesByNameContaining(nameSubstring);
     }
     
     // Inner class for statistics
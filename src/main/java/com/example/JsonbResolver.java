@@ -0,0 +1,31 @@
+package com.example;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+import jakarta.ws.rs.ext.ContextResolver;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Supplies the single Jsonb instance JAX-RS uses for JSON bodies.
+ *
+ * JSON-B implementations cache class models per Jsonb instance, so sharing it lets the startup
+ * warm-up prime the same instance that serializes real responses.
+ */
+@Provider
+@ApplicationScoped
+public class JsonbResolver implements ContextResolver<Jsonb> {
+
+    private final Jsonb jsonb = JsonbBuilder.create();
+
+    @Override
+    public Jsonb getContext(Class<?> type) {
+        return jsonb;
+    }
+
+    @PreDestroy
+    void close() throws Exception {
+        jsonb.close();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example;
+
+import com.example.repository.GreetingRepository;
+import com.example.repository.shard.ShardedGreetingRepository;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.ContextNotActiveException;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.Startup;
+import jakarta.enterprise.inject.spi.Bean;
+import jakarta.enterprise.inject.spi.BeanManager;
+import jakarta.inject.Inject;
+import jakarta.interceptor.Interceptor;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Decides whether a read may be served by the read-only replica persistence unit.
+ *
+ * Reads go to the replica when replicas are enabled, unless the current session wrote within the
+ * configured staleness bound; those reads stay on the primary so a client always sees its own writes.
+ * The replica is a single JPA persistence unit, so it cannot be combined with the sharded repository.
+ */
+@ApplicationScoped
+public class ReadReplicaPolicy {
+
+    @Inject
+    @ConfigProperty(name = "greetings.replica.enabled", defaultValue = "false")
+    private boolean enabled;
+
+    @Inject
+    @ConfigProperty(name = "greetings.replica.staleness-bound-ms", defaultValue = "5000")
+    private long stalenessBoundMillis;
+
+    @Inject
+    private WriteRecency writeRecency;
+
+    @Inject
+    private BeanManager beanManager;
+
+    /**
+     * Fail deployment if replicas are enabled together with the sharded repository
+     */
+    void validate(@Observes @Priority(Interceptor.Priority.LIBRARY_BEFORE) Startup startup) {
+        if (!enabled) {
+            return;
+        }
+        Bean<?> repository = beanManager.resolve(beanManager.getBeans(GreetingRepository.class));
+        if (repository != null && ShardedGreetingRepository.class.equals(repository.getBeanClass())) {
+            throw new IllegalStateException("greetings.replica.enabled cannot be combined with "
+                    + "ShardedGreetingRepository: the replica unit is not sharded");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Check if the current read can use the replica
+     */
+    public boolean useReplica() {
+        if (!enabled) {
+            return false;
+        }
+        try {
+            long lastWrite = writeRecency.getLastWriteMillis();
+            return lastWrite == 0 || System.currentTimeMillis() - lastWrite > stalenessBoundMillis;
+        } catch (ContextNotActiveException e) {
+            // No session (e.g. startup or async work), so there are no writes of ours to read back
+            return true;
+        }
+    }
+
+    /**
+     * Record a write by the current session
+     */
+    public void recordWrite() {
+        if (!enabled) {
+            // Avoid creating a session per write when no read is ever routed by it
+            return;
+        }
+        try {
+            writeRecency.markWrite();
+        } catch (ContextNotActiveException e) {
+            // No session to pin to the primary
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.example;
+
+import com.example.entity.Greeting;
+import com.example.event.GreetingEvent;
+import com.example.repository.GreetingQueries;
+import com.example.repository.GreetingReadRepository;
+import com.example.repository.GreetingRepository;
+import com.example.repository.GreetingSummary;
+import com.example.repository.GreetingTypedSummary;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.Startup;
+import jakarta.inject.Inject;
+import jakarta.json.bind.Jsonb;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Warms the application up after deployment and gates readiness on it.
+ *
+ * Opens several pooled connections at once, runs every repository read query (parsing and
+ * caching the JPQL) and serializes each response type, so the first real requests do not pay for
+ * query compilation, class loading and cold JIT. Responses are serialized with the Jsonb that
+ * JAX-RS itself uses (see {@link JsonbResolver}). The health endpoint reports not-ready until this
+ * has finished, and down if it keeps failing.
+ *
+ * Repeated iterations only run queries that return at most one row: name-filtered queries use a
+ * name that does not exist, and listing queries run as JPQL capped with {@code setMaxResults(1)}.
+ * The unbounded repository listings run once, and only while the table is small.
+ */
+@ApplicationScoped
+public class StartupWarmup {
+
+    // No LIKE wildcards, so the containing/prefix searches match nothing
+    private static final String WARMUP_NAME = "WarmupProbe";
+
+    /**
+     * JPQL of the repository's listing queries, run bounded to one row on every iteration
+     */
+    private static final List<String> LISTING_QUERIES = List.of(
+            "SELECT g FROM Greeting g",
+            "SELECT g FROM Greeting g ORDER BY g.createdAt DESC",
+            "SELECT NEW com.example.repository.GreetingSummary(g.id, g.name, g.createdAt) FROM Greeting g",
+            "SELECT NEW com.example.repository.GreetingTypedSummary(g.id, g.name, g.greetingType, g.createdAt) FROM Greeting g");
+
+    @Inject
+    private Logger logger;
+
+    @Inject
+    private GreetingRepository greetingRepository;
+
+    @Inject
+    private GreetingReadRepository greetingReadRepository;
+
+    @Inject
+    private ReadReplicaPolicy readReplicaPolicy;
+
+    @Inject
+    private JsonbResolver jsonbResolver;
+
+    @PersistenceContext(unitName = "default")
+    private EntityManager entityManager;
+
+    @PersistenceContext(unitName = "replica")
+    private EntityManager replicaEntityManager;
+
+    @Inject
+    @ConfigProperty(name = "greetings.warmup.enabled", defaultValue = "true")
+    private boolean enabled;
+
+    @Inject
+    @ConfigProperty(name = "greetings.warmup.iterations", defaultValue = "20")
+    private int iterations;
+
+    @Inject
+    @ConfigProperty(name = "greetings.warmup.pool-connections", defaultValue = "4")
+    private int poolConnections;
+
+    @Inject
+    @ConfigProperty(name = "greetings.warmup.full-listing-max-rows", defaultValue = "10000")
+    private long fullListingMaxRows;
+
+    @Inject
+    @ConfigProperty(name = "greetings.warmup.max-attempts", defaultValue = "5")
+    private int maxAttempts;
+
+    @Inject
+    @ConfigProperty(name = "greetings.warmup.retry-delay-ms", defaultValue = "2000")
+    private long retryDelayMillis;
+
+    @Resource
+    private ManagedExecutorService executor;
+
+    private volatile boolean ready;
+    private volatile boolean failed;
+
+    void onStartup(@Observes Startup startup) {
+        if (!enabled) {
+            ready = true;
+            return;
+        }
+        executor.submit(this::warmUp);
+    }
+
+    /**
+     * Check if warm-up and pool priming have finished
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Check if warm-up gave up after failing on every attempt, e.g. because the database is unreachable
+     */
+    public boolean isFailed() {
+        return failed;
+    }
+
+    void warmUp() {
+        long start = System.currentTimeMillis();
+        logger.info("Starting warm-up");
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                runWarmUp();
+                ready = true;
+                logger.info("Warm-up finished in " + (System.currentTimeMillis() - start) + " ms, application is ready");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.warning("Warm-up attempt " + attempt + " of " + maxAttempts + " failed: " + e.getMessage());
+                if (attempt < maxAttempts && !sleep(retryDelayMillis * attempt)) {
+                    break;
+                }
+            }
+        }
+        failed = true;
+        logger.severe("Warm-up did not complete, application is not ready");
+    }
+
+    private void runWarmUp() throws Exception {
+        primePool();
+        // The instance JAX-RS serializes responses with, so its class model cache is the one warmed
+        Jsonb jsonb = jsonbResolver.getContext(Object.class);
+        for (int i = 0; i < iterations; i++) {
+            runQueries(greetingRepository, entityManager);
+            if (readReplicaPolicy.isEnabled()) {
+                runQueries(greetingReadRepository, replicaEntityManager);
+            }
+            serializeResponses(jsonb);
+        }
+        runListings(greetingRepository);
+        if (readReplicaPolicy.isEnabled()) {
+            runListings(greetingReadRepository);
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Hold several connections at once so the pool grows to its working size before traffic arrives
+     */
+    private void primePool() throws Exception {
+        List<Future<Long>> pending = new ArrayList<>(poolConnections);
+        for (int i = 0; i < poolConnections; i++) {
+            pending.add(executor.submit(greetingRepository::countAll));
+        }
+        for (Future<Long> future : pending) {
+            future.get();
+        }
+    }
+
+    /**
+     * Run every query that returns at most one row
+     */
+    private void runQueries(GreetingQueries queries, EntityManager em) {
+        queries.findByName(WARMUP_NAME);
+        queries.countByName(WARMUP_NAME);
+        queries.countAll();
+        queries.findByNameContainingIgnoreCase(WARMUP_NAME);
+        queries.findByNamePrefix(WARMUP_NAME);
+        queries.existsByName(WARMUP_NAME);
+        queries.findSummariesByName(WARMUP_NAME);
+        queries.findSummariesByNameContaining(WARMUP_NAME);
+        queries.findTypedSummariesByName(WARMUP_NAME);
+        queries.findTypedSummariesByNameContaining(WARMUP_NAME);
+        queries.findById(-1L);
+        for (String jpql : LISTING_QUERIES) {
+            em.createQuery(jpql).setMaxResults(1).getResultList();
+        }
+    }
+
+    /**
+     * Run the unbounded listing methods once, so their repository paths are initialized, unless the table is large
+     */
+    private void runListings(GreetingQueries queries) {
+        long rows = queries.countAll();
+        if (rows > fullListingMaxRows) {
+            logger.info("Skipping full listing warm-up for " + rows + " greetings");
+            return;
+        }
+        queries.findAllByOrderByCreatedAtDesc();
+        queries.findAllSummaries();
+        queries.findAllTypedSummaries();
+        try (Stream<Greeting> all = queries.findAll()) {
+            all.findFirst();
+        }
+    }
+
+    private void serializeResponses(Jsonb jsonb) {
+        LocalDateTime now = LocalDateTime.now();
+        Greeting greeting = new Greeting(WARMUP_NAME, Greeting.GreetingType.CASUAL);
+        greeting.setId(-1L);
+        greeting.setCreatedAt(now);
+        GreetingSummary summary = new GreetingSummary(-1L, WARMUP_NAME, now);
+        GreetingTypedSummary typedSummary = new GreetingTypedSummary(-1L, WARMUP_NAME, Greeting.GreetingType.CASUAL, now);
+
+        jsonb.toJson(List.of(greeting));
+        jsonb.toJson(List.of(summary));
+        jsonb.toJson(List.of(typedSummary));
+        jsonb.toJson(GreetingFields.parse("id,name,createdAt").render(List.of(summary)));
+        jsonb.toJson(GreetingEvent.created(greeting));
+        jsonb.toJson(new HelloService.GreetingStats(0));
+        jsonb.toJson(new HelloResource.HelloResponse(greeting.getMessage()));
+        jsonb.toJson(new HelloResource.CountResponse(WARMUP_NAME, 0));
+        jsonb.toJson(new HelloResource.ErrorResponse(WARMUP_NAME));
+        jsonb.toJson(new HelloResource.SuccessResponse(WARMUP_NAME));
+        jsonb.toJson(new HelloResource.HealthResponse("UP", "Jakarta EE 11 Application"));
+    }
+}
@@ -0,0 +1,24 @@
+package com.example;
+
+import jakarta.enterprise.context.SessionScoped;
+
+import java.io.Serializable;
+
+/**
+ * Session-level "recently wrote" token used for read-your-writes routing
+ */
+@SessionScoped
+public class WriteRecency implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private volatile long lastWriteMillis;
+
+    public void markWrite() {
+        lastWriteMillis = System.currentTimeMillis();
+    }
+
+    public long getLastWriteMillis() {
+        return lastWriteMillis;
+    }
+}
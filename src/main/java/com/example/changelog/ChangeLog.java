@@ -0,0 +1,400 @@
+package com.example.changelog;
+
+import com.example.event.GreetingEvent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of greeting changes stored in memory-mapped segment files.
+ *
+ * Each segment is a fixed-size file named after the log offset of its first byte and mapped in full,
+ * so appends are plain writes into the mapping and reads hand slices of it straight to the output channel.
+ * Offsets are contiguous across segments: a new segment starts where the previous one ended.
+ *
+ * Appends are serialized; readers never take the lock and only see bytes up to the committed offset,
+ * which is published after the record is fully written. On open, the newest segment is scanned and
+ * truncated after its last record with a valid checksum, dropping anything torn by a crash.
+ *
+ * Each segment keeps a sparse index of record starts, one entry per {@value #INDEX_INTERVAL} bytes,
+ * so a reader's offset is checked to be a record boundary by walking at most that many bytes.
+ */
+public class ChangeLog implements Closeable {
+
+    static final String SEGMENT_SUFFIX = ".log";
+
+    static final int INDEX_INTERVAL = 4096;
+
+    private static final Logger LOGGER = Logger.getLogger(ChangeLog.class.getName());
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int retainedSegments;
+    private final boolean forceOnAppend;
+
+    private final ConcurrentNavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    private Segment active;
+    private volatile long committedOffset;
+
+    /**
+     * @param segmentBytes     size of each segment file
+     * @param retainedSegments number of segments kept, including the active one; older ones are deleted on roll
+     * @param forceOnAppend    flush each record to disk before the append returns
+     */
+    public ChangeLog(Path directory, int segmentBytes, int retainedSegments, boolean forceOnAppend) {
+        if (segmentBytes <= ChangeRecord.LENGTH_BYTES + ChangeRecord.CHECKSUM_BYTES + ChangeRecord.FIXED_BODY_BYTES) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentBytes);
+        }
+        if (retainedSegments < 1) {
+            throw new IllegalArgumentException("At least one segment must be retained");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.retainedSegments = retainedSegments;
+        this.forceOnAppend = forceOnAppend;
+    }
+
+    /**
+     * Map existing segments and recover the write position, creating the first segment if the log is empty
+     */
+    public synchronized void open() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(SEGMENT_SUFFIX)).toList()) {
+                String fileName = file.getFileName().toString();
+                long baseOffset = Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length()));
+                // Sealed segments are indexed on first read; the active one is indexed by recovery below
+                segments.put(baseOffset, Segment.map(file, baseOffset, (int) Files.size(file), false));
+            }
+        }
+
+        if (segments.isEmpty()) {
+            active = createSegment(0L);
+            committedOffset = 0L;
+            return;
+        }
+
+        active = segments.lastEntry().getValue();
+        active.position = recover(active);
+        committedOffset = active.baseOffset + active.position;
+        LOGGER.info("Opened change log in " + directory + " with " + segments.size()
+                + " segments, offsets " + startOffset() + " to " + committedOffset);
+    }
+
+    /**
+     * Append a change
+     *
+     * @return the offset of the appended record
+     */
+    public synchronized long append(GreetingEvent event) {
+        int size = ChangeRecord.encodedSize(event);
+        if (size > segmentBytes) {
+            throw new IllegalArgumentException("Change record of " + size + " bytes exceeds segment size " + segmentBytes);
+        }
+        if (active.position + size > active.capacity()) {
+            roll();
+        }
+
+        long offset = active.baseOffset + active.position;
+        ByteBuffer target = active.buffer.duplicate().position(active.position);
+        ChangeRecord.encode(event, target);
+        active.indexRecord(active.position);
+        if (forceOnAppend) {
+            active.buffer.force(active.position, size);
+        }
+        active.position += size;
+        committedOffset = offset + size;
+        return offset;
+    }
+
+    /**
+     * Offset of the oldest retained record
+     */
+    public long startOffset() {
+        Map.Entry<Long, Segment> first = segments.firstEntry();
+        return first == null ? committedOffset : first.getKey();
+    }
+
+    /**
+     * Offset after the newest committed record
+     */
+    public long endOffset() {
+        return committedOffset;
+    }
+
+    /**
+     * Find the last record boundary in {@code [fromOffset, fromOffset + maxBytes]}, so a reader can stop
+     * without splitting a record. Always includes at least one record if any is available.
+     *
+     * @throws IllegalArgumentException if {@code fromOffset} is not a record boundary in the retained log
+     */
+    public long boundaryWithin(long fromOffset, long maxBytes) {
+        long end = committedOffset;
+        checkBoundary(fromOffset, end);
+
+        long boundary = fromOffset;
+        while (boundary < end) {
+            Segment segment = segmentAt(boundary);
+            int position = (int) (boundary - segment.baseOffset);
+            if (position >= readLimit(segment, end)) {
+                boundary = segment.baseOffset + readLimit(segment, end);
+                continue;
+            }
+            long next = boundary + ChangeRecord.LENGTH_BYTES + segment.buffer.getInt(position);
+            if (next - fromOffset > maxBytes && boundary > fromOffset) {
+                break;
+            }
+            boundary = next;
+        }
+        return boundary;
+    }
+
+    /**
+     * Write the raw records in {@code [fromOffset, toOffset)} to a channel straight from the mapped segments
+     *
+     * @return the number of bytes written
+     */
+    public long transferTo(long fromOffset, long toOffset, WritableByteChannel target) throws IOException {
+        long end = committedOffset;
+        checkBoundary(fromOffset, end);
+        if (toOffset < fromOffset) {
+            throw new IllegalArgumentException("Invalid end offset " + toOffset);
+        }
+        checkBoundary(toOffset, end);
+
+        long offset = fromOffset;
+        while (offset < toOffset) {
+            Segment segment = segmentAt(offset);
+            int position = (int) (offset - segment.baseOffset);
+            int limit = (int) Math.min(readLimit(segment, toOffset), toOffset - segment.baseOffset);
+            ByteBuffer slice = segment.buffer.duplicate().position(position).limit(limit);
+            while (slice.hasRemaining()) {
+                target.write(slice);
+            }
+            offset = segment.baseOffset + limit;
+        }
+        return toOffset - fromOffset;
+    }
+
+    /**
+     * Decode the records in {@code [fromOffset, toOffset)}
+     */
+    public List<ChangeRecord> read(long fromOffset, long toOffset) {
+        checkBoundary(fromOffset, committedOffset);
+        List<ChangeRecord> records = new ArrayList<>();
+        long offset = fromOffset;
+        while (offset < toOffset) {
+            Segment segment = segmentAt(offset);
+            int limit = readLimit(segment, toOffset);
+            ByteBuffer source = segment.buffer.duplicate().position((int) (offset - segment.baseOffset)).limit(limit);
+            while (source.hasRemaining() && segment.baseOffset + source.position() < toOffset) {
+                records.add(ChangeRecord.decode(segment.baseOffset + source.position(), source));
+            }
+            offset = segment.baseOffset + limit;
+        }
+        return records;
+    }
+
+    @Override
+    public synchronized void close() {
+        for (Segment segment : segments.values()) {
+            segment.buffer.force();
+        }
+        segments.clear();
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    private void checkReadable(long fromOffset, long end) {
+        if (fromOffset < startOffset()) {
+            throw new IllegalArgumentException("Offset " + fromOffset + " is older than the retained log, which starts at " + startOffset());
+        }
+        if (fromOffset > end) {
+            throw new IllegalArgumentException("Offset " + fromOffset + " is beyond the end of the log at " + end);
+        }
+    }
+
+    /**
+     * Check that an offset is in the retained log and starts a record (or is the end of the log)
+     */
+    private void checkBoundary(long offset, long end) {
+        checkReadable(offset, end);
+        Segment segment = segmentAt(offset);
+        int position = (int) (offset - segment.baseOffset);
+        if (!isBoundary(segment, position, readLimit(segment, end))) {
+            throw new IllegalArgumentException("Offset " + offset + " is not at a record boundary");
+        }
+    }
+
+    private static boolean isBoundary(Segment segment, int position, int limit) {
+        if (position == limit) {
+            return true;
+        }
+        segment.ensureIndexed(limit);
+        int count = segment.indexed;
+        int[] entries = segment.index;
+        int slot = position / INDEX_INTERVAL;
+        if (slot >= count) {
+            return false;
+        }
+        int start = entries[slot];
+        while (start < position) {
+            start += ChangeRecord.LENGTH_BYTES + segment.buffer.getInt(start);
+        }
+        return start == position;
+    }
+
+    private Segment segmentAt(long offset) {
+        Map.Entry<Long, Segment> entry = segments.floorEntry(offset);
+        if (entry == null) {
+            throw new IllegalStateException("Offset " + offset + " was removed by retention while being read");
+        }
+        return entry.getValue();
+    }
+
+    /**
+     * Readable bytes in a segment: up to the next segment for sealed ones, up to the committed offset for the active one
+     */
+    private int readLimit(Segment segment, long end) {
+        Long next = segments.higherKey(segment.baseOffset);
+        long limit = next != null ? next : end;
+        return (int) (Math.min(limit, end) - segment.baseOffset);
+    }
+
+    private void roll() {
+        active.buffer.force();
+        long baseOffset = active.baseOffset + active.position;
+        active = createSegment(baseOffset);
+
+        while (segments.size() > retainedSegments) {
+            Map.Entry<Long, Segment> oldest = segments.pollFirstEntry();
+            try {
+                // Readers holding a slice keep the mapping alive until they finish
+                Files.deleteIfExists(oldest.getValue().file);
+            } catch (IOException e) {
+                LOGGER.warning("Could not delete change log segment " + oldest.getValue().file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private Segment createSegment(long baseOffset) {
+        Path file = directory.resolve(String.format("%020d%s", baseOffset, SEGMENT_SUFFIX));
+        try {
+            Segment segment = Segment.map(file, baseOffset, segmentBytes, true);
+            segments.put(baseOffset, segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create change log segment " + file, e);
+        }
+    }
+
+    /**
+     * Scan a segment for the end of its last intact record and zero everything after it
+     */
+    private static int recover(Segment segment) {
+        int position = 0;
+        int size;
+        while ((size = ChangeRecord.validSizeAt(segment.buffer, position, segment.capacity())) > 0) {
+            segment.indexRecord(position);
+            position += size;
+        }
+        segment.indexComplete = true;
+        for (int i = position; i < segment.capacity(); i++) {
+            if (segment.buffer.get(i) != 0) {
+                LOGGER.warning("Truncating torn change log record at offset " + (segment.baseOffset + position));
+                for (int j = position; j < segment.capacity(); j++) {
+                    segment.buffer.put(j, (byte) 0);
+                }
+                segment.buffer.force();
+                break;
+            }
+        }
+        return position;
+    }
+
+    private static final class Segment {
+
+        private final Path file;
+        private final long baseOffset;
+        private final MappedByteBuffer buffer;
+        private int position;
+
+        // Entry k is the position of the first record starting at or after k * INDEX_INTERVAL.
+        // Written by the appender (or one indexing reader), published through the volatile count.
+        private volatile int[] index = new int[16];
+        private volatile int indexed;
+        private volatile boolean indexComplete;
+
+        private Segment(Path file, long baseOffset, MappedByteBuffer buffer, boolean indexComplete) {
+            this.file = file;
+            this.baseOffset = baseOffset;
+            this.buffer = buffer;
+            this.indexComplete = indexComplete;
+        }
+
+        static Segment map(Path file, long baseOffset, int size, boolean indexComplete) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return new Segment(file, baseOffset, channel.map(FileChannel.MapMode.READ_WRITE, 0, size), indexComplete);
+            }
+        }
+
+        /**
+         * Record that a record starts at {@code recordPosition}; records must be indexed in order
+         */
+        void indexRecord(int recordPosition) {
+            int count = indexed;
+            int[] entries = index;
+            while ((long) count * INDEX_INTERVAL <= recordPosition) {
+                if (count == entries.length) {
+                    entries = Arrays.copyOf(entries, count * 2);
+                    index = entries;
+                }
+                entries[count++] = recordPosition;
+            }
+            indexed = count;
+        }
+
+        /**
+         * Build the index of a sealed segment found on open by walking its records once
+         */
+        synchronized void ensureIndexed(int limit) {
+            if (indexComplete) {
+                return;
+            }
+            int recordPosition = 0;
+            while (recordPosition < limit) {
+                int length = buffer.getInt(recordPosition);
+                if (length <= 0) {
+                    break;
+                }
+                indexRecord(recordPosition);
+                recordPosition += ChangeRecord.LENGTH_BYTES + length;
+            }
+            indexComplete = true;
+        }
+
+        int capacity() {
+            return buffer.capacity();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.changelog;
+
+import com.example.entity.Greeting;
+import com.example.event.GreetingEvent;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32C;
+
+/**
+ * One greeting change in the change log, with its binary encoding.
+ *
+ * Records are big-endian and laid out as:
+ * <pre>
+ *   int   length        bytes following this field (checksum + body)
+ *   int   checksum      CRC32C of the body
+ *   byte  kind          0 = CREATED, 1 = DELETED
+ *   long  greetingId
+ *   byte  greetingType  GreetingType ordinal, -1 if absent
+ *   long  createdAt     epoch milliseconds (UTC), Long.MIN_VALUE if absent
+ *   short nameLength
+ *   byte[] name         UTF-8
+ * </pre>
+ * A record's offset is its position in the log, so a consumer resumes from the offset after the
+ * last record it processed.
+ */
+public record ChangeRecord(long offset, GreetingEvent.Kind kind, long greetingId,
+                           Greeting.GreetingType greetingType, LocalDateTime createdAt, String name) {
+
+    static final int LENGTH_BYTES = 4;
+    static final int CHECKSUM_BYTES = 4;
+    static final int FIXED_BODY_BYTES = 1 + 8 + 1 + 8 + 2;
+
+    /**
+     * Encoded size of a change for the given event, including the length prefix
+     */
+    static int encodedSize(GreetingEvent event) {
+        return LENGTH_BYTES + CHECKSUM_BYTES + FIXED_BODY_BYTES + nameBytes(event).length;
+    }
+
+    /**
+     * Encode an event at the buffer's current position
+     */
+    static void encode(GreetingEvent event, ByteBuffer target) {
+        byte[] name = nameBytes(event);
+        int bodyStart = target.position() + LENGTH_BYTES + CHECKSUM_BYTES;
+
+        target.putInt(CHECKSUM_BYTES + FIXED_BODY_BYTES + name.length);
+        target.putInt(0);
+        target.put((byte) event.kind().ordinal());
+        target.putLong(event.id() == null ? -1L : event.id());
+        target.put(event.greetingType() == null ? -1 : (byte) event.greetingType().ordinal());
+        target.putLong(event.createdAt() == null ? Long.MIN_VALUE
+                : event.createdAt().toInstant(ZoneOffset.UTC).toEpochMilli());
+        target.putShort((short) name.length);
+        target.put(name);
+
+        CRC32C crc = new CRC32C();
+        crc.update(target.duplicate().position(bodyStart).limit(target.position()));
+        target.putInt(bodyStart - CHECKSUM_BYTES, (int) crc.getValue());
+    }
+
+    /**
+     * Check if a complete, uncorrupted record starts at {@code position}
+     *
+     * @return the record's total size, or -1 if there is no valid record there
+     */
+    static int validSizeAt(ByteBuffer source, int position, int limit) {
+        if (limit - position < LENGTH_BYTES) {
+            return -1;
+        }
+        int length = source.getInt(position);
+        if (length < CHECKSUM_BYTES + FIXED_BODY_BYTES || length > limit - position - LENGTH_BYTES) {
+            return -1;
+        }
+        int bodyStart = position + LENGTH_BYTES + CHECKSUM_BYTES;
+        int bodyEnd = position + LENGTH_BYTES + length;
+        CRC32C crc = new CRC32C();
+        crc.update(source.duplicate().position(bodyStart).limit(bodyEnd));
+        if ((int) crc.getValue() != source.getInt(position + LENGTH_BYTES)) {
+            return -1;
+        }
+        return LENGTH_BYTES + length;
+    }
+
+    /**
+     * Decode the record at the buffer's current position, advancing past it
+     */
+    public static ChangeRecord decode(long offset, ByteBuffer source) {
+        source.getInt();
+        source.getInt();
+        GreetingEvent.Kind kind = GreetingEvent.Kind.values()[source.get()];
+        long greetingId = source.getLong();
+        byte type = source.get();
+        long createdAtMillis = source.getLong();
+        byte[] name = new byte[source.getShort()];
+        source.get(name);
+
+        return new ChangeRecord(offset, kind, greetingId,
+                type < 0 ? null : Greeting.GreetingType.values()[type],
+                createdAtMillis == Long.MIN_VALUE ? null
+                        : LocalDateTime.ofEpochSecond(Math.floorDiv(createdAtMillis, 1000L),
+                                (int) Math.floorMod(createdAtMillis, 1000L) * 1_000_000, ZoneOffset.UTC),
+                new String(name, StandardCharsets.UTF_8));
+    }
+
+    private static byte[] nameBytes(GreetingEvent event) {
+        return event.name() == null ? new byte[0] : event.name().getBytes(StandardCharsets.UTF_8);
+    }
+}
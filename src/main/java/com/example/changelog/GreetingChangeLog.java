@@ -0,0 +1,121 @@
+package com.example.changelog;
+
+import com.example.event.GreetingEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Durable change log of committed greeting creations and deletions.
+ *
+ * Observes {@link GreetingEvent}s after their transaction commits and appends them to a
+ * memory-mapped {@link ChangeLog}, which consumers tail by offset through the changes endpoint.
+ */
+@ApplicationScoped
+public class GreetingChangeLog {
+
+    static final String DEFAULT_DIRECTORY_NAME = "greetings-changelog";
+
+    @Inject
+    private Logger logger;
+
+    @Inject
+    @ConfigProperty(name = "greetings.changelog.dir")
+    private Optional<String> directory;
+
+    @Inject
+    @ConfigProperty(name = "greetings.changelog.segment-bytes", defaultValue = "67108864")
+    private int segmentBytes;
+
+    @Inject
+    @ConfigProperty(name = "greetings.changelog.retained-segments", defaultValue = "16")
+    private int retainedSegments;
+
+    @Inject
+    @ConfigProperty(name = "greetings.changelog.force-on-append", defaultValue = "false")
+    private boolean forceOnAppend;
+
+    private ChangeLog changeLog;
+
+    private final AtomicLong failedAppends = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        // Default to the server instance directory so the log survives restarts
+        Path path = directory.map(Path::of).orElseGet(() -> Path.of(
+                System.getProperty("com.sun.aas.instanceRoot", System.getProperty("java.io.tmpdir")),
+                DEFAULT_DIRECTORY_NAME));
+        changeLog = new ChangeLog(path, segmentBytes, retainedSegments, forceOnAppend);
+        try {
+            changeLog.open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open greeting change log in " + path, e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        changeLog.close();
+    }
+
+    /**
+     * Append a committed greeting change
+     *
+     * The change is already committed and without a transaction this runs on the writer's thread,
+     * so a failed append (e.g. a full disk) is logged and counted rather than failing the write.
+     */
+    public void onGreetingEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) GreetingEvent event) {
+        try {
+            long offset = changeLog.append(event);
+            logger.fine("Appended " + event.kind() + " of greeting " + event.id() + " at change log offset " + offset);
+        } catch (RuntimeException e) {
+            failedAppends.incrementAndGet();
+            logger.severe("Change log is missing " + event.kind() + " of greeting " + event.id() + ": " + e);
+        }
+    }
+
+    /**
+     * Number of committed changes that could not be appended since startup; consumers missed them
+     */
+    public long failedAppends() {
+        return failedAppends.get();
+    }
+
+    public long startOffset() {
+        return changeLog.startOffset();
+    }
+
+    public long endOffset() {
+        return changeLog.endOffset();
+    }
+
+    /**
+     * Find where a read of at most {@code maxBytes} starting at {@code fromOffset} should stop
+     *
+     * @throws IllegalArgumentException if {@code fromOffset} is outside the retained log or not at a record boundary
+     */
+    public long nextOffset(long fromOffset, long maxBytes) {
+        return changeLog.boundaryWithin(fromOffset, maxBytes);
+    }
+
+    /**
+     * Stream raw change records in {@code [fromOffset, toOffset)}
+     */
+    public void writeTo(long fromOffset, long toOffset, OutputStream out) throws IOException {
+        changeLog.transferTo(fromOffset, toOffset, Channels.newChannel(out));
+        out.flush();
+    }
+}
@@ -8,9 +8,13 @@ import java.time.LocalDateTime;
 
 /**
  * JPA Entity for storing greetings in the database
+ *
+ * The row is kept compact: the name is dictionary-encoded as an integer key into the
+ * {@code names} table, the type is stored as its ordinal and the message is derived on read.
  */
 @Entity
-@Table(name = "greetings")
+@Table(name = "greetings", indexes = @Index(name = "idx_greetings_name_id", columnList = "name_id"))
+@EntityListeners(GreetingNameListener.class)
 @NamedQueries({
     @NamedQuery(name = "Greeting.findAll", query = "SELECT g FROM Greeting g ORDER BY g.createdAt DESC"),
     @NamedQuery(name = "Greeting.findByName", query = "SELECT g FROM Greeting g WHERE g.name = :name ORDER BY g.createdAt DESC"),
@@ -24,16 +28,16 @@ public class Greeting {
 
     @NotBlank
     @Size(max = 100)
-    @Column(name = "name", nullable = false, length = 100)
+    @Convert(converter = GreetingNameConverter.class)
+    @Column(name = "name_id", nullable = false)
     private String name;
 
-    @NotBlank
-    @Size(max = 255)
-    @Column(name = "message", nullable = false, length = 255)
-    private String message;
+    // Read-only view of the dictionary key, used by queries that match names through the names table
+    @Column(name = "name_id", insertable = false, updatable = false)
+    private Integer nameId;
 
-    @Column(name = "greeting_type", length = 50)
-    @Enumerated(EnumType.STRING)
+    @Column(name = "greeting_type", columnDefinition = "SMALLINT")
+    @Enumerated(EnumType.ORDINAL)
     private GreetingType greetingType;
 
     @Column(name = "created_at", nullable = false)
@@ -47,9 +51,8 @@ public class Greeting {
     // Constructors
     public Greeting() {}
 
-    public Greeting(String name, String message, GreetingType greetingType) {
+    public Greeting(String name, GreetingType greetingType) {
         this.name = name;
-        this.message = message;
         this.greetingType = greetingType;
     }
 
@@ -70,12 +73,11 @@ public class Greeting {
         this.name = name;
     }
 
+    /**
+     * The message is derived from the greeting type and name rather than stored
+     */
     public String getMessage() {
-        return message;
-    }
-
-    public void setMessage(String message) {
-        this.message = message;
+        return (greetingType == null || name == null) ? null : greetingType.format(name);
     }
 
     public GreetingType getGreetingType() {
@@ -99,14 +101,27 @@ public class Greeting {
         return "Greeting{" +
                 "id=" + id +
                 ", name='" + name + '\'' +
-                ", message='" + message + '\'' +
+                ", message='" + getMessage() + '\'' +
                 ", greetingType=" + greetingType +
                 ", createdAt=" + createdAt +
                 '}';
     }
 
+    /**
+     * Greeting types are stored by ordinal, so new types must only ever be appended
+     */
     public enum GreetingType {
-        CASUAL,
-        FORMAL
+        CASUAL("Hello, "),
+        FORMAL("Good day, ");
+
+        private final String salutation;
+
+        GreetingType(String salutation) {
+            this.salutation = salutation;
+        }
+
+        public String format(String name) {
+            return salutation + name + "!";
+        }
     }
 }
@@ -0,0 +1,51 @@
+package com.example.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * JPA Entity for the greeting name dictionary
+ * Each distinct name is stored once and referenced from greetings by its integer key
+ */
+@Entity
+@Table(name = "names")
+public class GreetingName {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "name", nullable = false, unique = true, length = 100)
+    private String name;
+
+    // Constructors
+    public GreetingName() {}
+
+    public GreetingName(String name) {
+        this.name = name;
+    }
+
+    // Getters and Setters
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String toString() {
+        return "GreetingName{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.entity;
+
+import com.example.repository.NameDictionary;
+import jakarta.inject.Inject;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a greeting name as its integer key in the name dictionary
+ *
+ * Also applied to query parameters compared against {@code Greeting.name}, so name equality
+ * becomes an integer comparison on {@code greetings.name_id}. Lookups never create dictionary
+ * entries; an unknown name maps to a key that matches no rows.
+ */
+@Converter
+public class GreetingNameConverter implements AttributeConverter<String, Integer> {
+
+    static final int UNKNOWN_NAME_ID = -1;
+
+    // Not injected when the persistence unit is bootstrapped outside the container
+    @Inject
+    private NameDictionary nameDictionary;
+
+    @Override
+    public Integer convertToDatabaseColumn(String name) {
+        if (name == null) {
+            return null;
+        }
+        Integer id = dictionary().idOf(name);
+        return id != null ? id : UNKNOWN_NAME_ID;
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer id) {
+        return id == null ? null : dictionary().nameOf(id);
+    }
+
+    private NameDictionary dictionary() {
+        return nameDictionary != null ? nameDictionary : NameDictionary.lookup();
+    }
+}
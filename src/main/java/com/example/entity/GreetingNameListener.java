@@ -0,0 +1,29 @@
+package com.example.entity;
+
+import com.example.repository.NameDictionary;
+import jakarta.inject.Inject;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+/**
+ * Entity listener that registers a greeting's name in the dictionary before it is written,
+ * so {@link GreetingNameConverter} can encode it
+ */
+public class GreetingNameListener {
+
+    // Not injected when the persistence unit is bootstrapped outside the container
+    @Inject
+    private NameDictionary nameDictionary;
+
+    @PrePersist
+    @PreUpdate
+    public void registerName(Greeting greeting) {
+        if (greeting.getName() != null) {
+            dictionary().register(greeting.getName());
+        }
+    }
+
+    private NameDictionary dictionary() {
+        return nameDictionary != null ? nameDictionary : NameDictionary.lookup();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.event;
+
+import com.example.entity.Greeting;
+
+import java.time.LocalDateTime;
+
+/**
+ * CDI event fired by HelloService when a greeting changes.
+ * Observers should use {@code @Observes(during = TransactionPhase.AFTER_SUCCESS)} so they only see committed changes.
+ */
+public record GreetingEvent(Kind kind, Long id, String name, Greeting.GreetingType greetingType,
+                            String message, LocalDateTime createdAt) {
+
+    public enum Kind {
+        CREATED,
+        DELETED
+    }
+
+    public static GreetingEvent created(Greeting greeting) {
+        return of(Kind.CREATED, greeting);
+    }
+
+    public static GreetingEvent deleted(Greeting greeting) {
+        return of(Kind.DELETED, greeting);
+    }
+
+    private static GreetingEvent of(Kind kind, Greeting greeting) {
+        return new GreetingEvent(kind, greeting.getId(), greeting.getName(), greeting.getGreetingType(),
+                greeting.getMessage(), greeting.getCreatedAt());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.feed;
+
+import com.example.event.GreetingEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded ring buffer of recent greeting events, keyed by a monotonically increasing sequence number.
+ * Lets SSE clients resume from {@code Last-Event-ID} without going back to the database.
+ */
+public class GreetingEventBuffer {
+
+    public record Entry(long sequence, GreetingEvent event) {
+    }
+
+    private final Entry[] entries;
+    private long nextSequence = 1;
+
+    public GreetingEventBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.entries = new Entry[capacity];
+    }
+
+    /**
+     * Append an event, overwriting the oldest one when full
+     *
+     * @return the sequence number assigned to the event
+     */
+    public synchronized long append(GreetingEvent event) {
+        long sequence = nextSequence++;
+        entries[(int) (sequence % entries.length)] = new Entry(sequence, event);
+        return sequence;
+    }
+
+    /**
+     * Get the buffered events after the given sequence number, oldest first.
+     * A sequence number ahead of the buffer (e.g. from before a restart) replays everything buffered.
+     */
+    public synchronized List<Entry> since(long lastSequence) {
+        long oldest = oldestSequence();
+        long from = (lastSequence < oldest - 1 || lastSequence >= nextSequence) ? oldest : lastSequence + 1;
+
+        List<Entry> result = new ArrayList<>((int) Math.max(0, nextSequence - from));
+        for (long sequence = from; sequence < nextSequence; sequence++) {
+            result.add(entries[(int) (sequence % entries.length)]);
+        }
+        return result;
+    }
+
+    /**
+     * Sequence number of the oldest event still buffered
+     */
+    public synchronized long oldestSequence() {
+        return Math.max(1, nextSequence - entries.length);
+    }
+
+    public synchronized long latestSequence() {
+        return nextSequence - 1;
+    }
+}
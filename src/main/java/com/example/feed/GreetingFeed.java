@@ -0,0 +1,216 @@
+package com.example.feed;
+
+import com.example.entity.Greeting;
+import com.example.event.GreetingEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Live feed of newly created greetings for Server-Sent Events clients.
+ *
+ * Committed creations are appended to a replay ring buffer and queued for every subscriber whose
+ * name/type filter matches. Each subscriber's queue is bounded and drained by a task on the managed
+ * executor, so a slow client never blocks the thread that created the greeting; a client that falls
+ * further behind than its queue holds is disconnected rather than buffered without limit.
+ */
+@ApplicationScoped
+public class GreetingFeed {
+
+    static final String EVENT_NAME = "greeting";
+
+    @Inject
+    private Logger logger;
+
+    @Inject
+    @ConfigProperty(name = "greetings.stream.replay-buffer-size", defaultValue = "1024")
+    private int replayBufferSize;
+
+    @Inject
+    @ConfigProperty(name = "greetings.stream.client-buffer-size", defaultValue = "64")
+    private int clientBufferSize;
+
+    @Resource
+    private ManagedExecutorService executor;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private GreetingEventBuffer buffer;
+
+    @PostConstruct
+    void init() {
+        buffer = new GreetingEventBuffer(replayBufferSize);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+        }
+        subscribers.clear();
+    }
+
+    /**
+     * Record a committed greeting creation and push it to matching subscribers
+     */
+    public void onGreetingEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) GreetingEvent event) {
+        if (event.kind() != GreetingEvent.Kind.CREATED) {
+            return;
+        }
+        synchronized (this) {
+            long sequence = buffer.append(event);
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(sequence, event);
+            }
+        }
+    }
+
+    /**
+     * Register a client, first replaying buffered events after {@code lastEventId} if given
+     *
+     * @param name only deliver greetings for this name, or all names when null
+     * @param type only deliver greetings of this type, or all types when null
+     */
+    public void subscribe(SseEventSink sink, Sse sse, Long lastEventId, String name, Greeting.GreetingType type) {
+        Subscriber subscriber = new Subscriber(sink, sse, name, type);
+        synchronized (this) {
+            if (lastEventId != null) {
+                List<GreetingEventBuffer.Entry> replay = buffer.since(lastEventId);
+                logger.info("Replaying " + replay.size() + " greeting events after ID " + lastEventId);
+                for (GreetingEventBuffer.Entry entry : replay) {
+                    subscriber.offer(entry.sequence(), entry.event());
+                }
+            }
+            if (!subscriber.closed) {
+                subscribers.add(subscriber);
+            }
+        }
+        logger.info("Greeting stream subscriber added, active subscribers: " + subscribers.size());
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private final class Subscriber {
+
+        private final SseEventSink sink;
+        private final Sse sse;
+        private final String name;
+        private final Greeting.GreetingType type;
+        private final BlockingQueue<GreetingEventBuffer.Entry> queue = new LinkedBlockingQueue<>(clientBufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(SseEventSink sink, Sse sse, String name, Greeting.GreetingType type) {
+            this.sink = sink;
+            this.sse = sse;
+            this.name = name;
+            this.type = type;
+        }
+
+        /**
+         * Queue an event for delivery; never blocks on the client
+         */
+        void offer(long sequence, GreetingEvent event) {
+            if (closed) {
+                return;
+            }
+            if (sink.isClosed()) {
+                close();
+                return;
+            }
+            if ((name != null && !name.equals(event.name())) || (type != null && type != event.greetingType())) {
+                return;
+            }
+            if (!queue.offer(new GreetingEventBuffer.Entry(sequence, event))) {
+                logger.warning("Dropping slow greeting stream subscriber with " + clientBufferSize + " pending events");
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                close();
+            }
+        }
+
+        /**
+         * Send queued events one at a time, waiting for each send so at most one is in flight
+         */
+        private void drain() {
+            try {
+                GreetingEventBuffer.Entry entry;
+                while (!closed && (entry = queue.poll()) != null) {
+                    send(entry);
+                }
+            } finally {
+                draining.set(false);
+            }
+            // An event may have been queued after the last poll but before draining was cleared
+            if (!closed && !queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void send(GreetingEventBuffer.Entry entry) {
+            OutboundSseEvent sseEvent = sse.newEventBuilder()
+                    .id(String.valueOf(entry.sequence()))
+                    .name(EVENT_NAME)
+                    .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                    .data(GreetingEvent.class, entry.event())
+                    .build();
+            try {
+                sink.send(sseEvent).toCompletableFuture().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+            } catch (ExecutionException | RuntimeException e) {
+                logger.fine("Greeting stream send failed: " + e.getMessage());
+                close();
+            }
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+            try {
+                sink.close();
+            } catch (IOException | RuntimeException e) {
+                logger.fine("Error closing greeting stream sink: " + e.getMessage());
+            }
+        }
+    }
+}
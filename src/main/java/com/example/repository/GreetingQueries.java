@@ -0,0 +1,116 @@
+package com.example.repository;
+
+import com.example.entity.Greeting;
+import jakarta.data.repository.By;
+import jakarta.data.repository.Find;
+import jakarta.data.repository.Param;
+import jakarta.data.repository.Query;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Read-only Greeting queries shared by the primary {@link GreetingRepository}
+ * and the replica-backed {@link GreetingReadRepository}
+ */
+public interface GreetingQueries {
+
+    /**
+     * Find greeting by ID
+     */
+    @Find
+    Optional<Greeting> findById(@By(By.ID) Long id);
+
+    /**
+     * Find all greetings
+     */
+    @Find
+    Stream<Greeting> findAll();
+
+    /**
+     * Find greetings by name
+     * Jakarta Data automatically implements this method based on the method name
+     */
+    List<Greeting> findByName(String name);
+
+    /**
+     * Count greetings by name
+     * Jakarta Data automatically implements this method based on the method name
+     */
+    long countByName(String name);
+
+    /**
+     * Count all greetings without loading them
+     */
+    @Query("SELECT COUNT(g) FROM Greeting g")
+    long countAll();
+
+    /**
+     * Find greetings containing name (case-insensitive)
+     * Names are dictionary-encoded, so the match runs against the names table
+     */
+    @Query("SELECT g FROM Greeting g "
+            + "WHERE g.nameId IN (SELECT n.id FROM GreetingName n WHERE LOWER(n.name) LIKE LOWER(CONCAT('%', :name, '%')))")
+    List<Greeting> findByNameContainingIgnoreCase(@Param("name") String name);
+
+    /**
+     * Find greetings ordered by creation timestamp
+     * Jakarta Data automatically implements this method based on the method name
+     */
+    List<Greeting> findAllByOrderByCreatedAtDesc();
+
+    /**
+     * Custom query to find greetings by name prefix
+     * Uses @Query annotation for custom JPQL
+     */
+    @Query("SELECT g FROM Greeting g "
+            + "WHERE g.nameId IN (SELECT n.id FROM GreetingName n WHERE n.name LIKE CONCAT(:namePrefix, '%'))")
+    List<Greeting> findByNamePrefix(@Param("namePrefix") String namePrefix);
+
+    /**
+     * Check if greeting exists by name
+     * Jakarta Data automatically implements this method based on the method name
+     */
+    boolean existsByName(String name);
+
+    /**
+     * Summary projection of all greetings (id, name, createdAt)
+     * Uses a JPQL constructor expression so only the selected columns are fetched
+     */
+    @Query("SELECT NEW com.example.repository.GreetingSummary(g.id, g.name, g.createdAt) FROM Greeting g")
+    List<GreetingSummary> findAllSummaries();
+
+    /**
+     * Summary projection of greetings by name
+     */
+    @Query("SELECT NEW com.example.repository.GreetingSummary(g.id, g.name, g.createdAt) FROM Greeting g WHERE g.name = :name")
+    List<GreetingSummary> findSummariesByName(@Param("name") String name);
+
+    /**
+     * Summary projection of greetings containing name (case-insensitive)
+     */
+    @Query("SELECT NEW com.example.repository.GreetingSummary(g.id, g.name, g.createdAt) FROM Greeting g "
+            + "WHERE g.nameId IN (SELECT n.id FROM GreetingName n WHERE LOWER(n.name) LIKE LOWER(CONCAT('%', :name, '%')))")
+    List<GreetingSummary> findSummariesByNameContaining(@Param("name") String name);
+
+    /**
+     * Typed summary projection of all greetings (id, name, greetingType, createdAt)
+     */
+    @Query("SELECT NEW com.example.repository.GreetingTypedSummary(g.id, g.name, g.greetingType, g.createdAt) FROM Greeting g")
+    List<GreetingTypedSummary> findAllTypedSummaries();
+
+    /**
+     * Typed summary projection of greetings by name
+     */
+    @Query("SELECT NEW com.example.repository.GreetingTypedSummary(g.id, g.name, g.greetingType, g.createdAt) FROM Greeting g "
+            + "WHERE g.name = :name")
+    List<GreetingTypedSummary> findTypedSummariesByName(@Param("name") String name);
+
+    /**
+     * Typed summary projection of greetings containing name (case-insensitive)
+     */
+    @Query("SELECT NEW com.example.repository.GreetingTypedSummary(g.id, g.name, g.greetingType, g.createdAt) FROM Greeting g "
+            + "WHERE g.nameId IN (SELECT n.id FROM GreetingName n WHERE LOWER(n.name) LIKE LOWER(CONCAT('%', :name, '%')))")
+    List<GreetingTypedSummary> findTypedSummariesByNameContaining(@Param("name") String name);
+}
@@ -0,0 +1,13 @@
+package com.example.repository;
+
+import com.example.entity.Greeting;
+import jakarta.data.repository.DataRepository;
+import jakarta.data.repository.Repository;
+
+/**
+ * Read-only Jakarta Data repository bound to the {@code replica} persistence unit
+ * Exposes the same queries as {@link GreetingRepository} but no lifecycle (write) methods
+ */
+@Repository(dataStore = "replica")
+public interface GreetingReadRepository extends DataRepository<Greeting, Long>, GreetingQueries {
+}
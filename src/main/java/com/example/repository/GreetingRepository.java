@@ -1,53 +1,29 @@
 package com.example.repository;
 
 import com.example.entity.Greeting;
+import jakarta.data.repository.By;
 import jakarta.data.repository.CrudRepository;
-import jakarta.data.repository.Query;
 import jakarta.data.repository.Repository;
 import jakarta.data.repository.Delete;
-import jakarta.data.repository.Save;
+import jakarta.data.repository.Find;
 
-import java.util.List;
 import java.util.Optional;
 
 /**
  * Jakarta Data Repository interface for Greeting entity operations
  * This interface automatically provides CRUD operations without implementation
+ * Read queries are inherited from {@link GreetingQueries}
  */
 @Repository
-public interface GreetingRepository extends CrudRepository<Greeting, Long> {
+public interface GreetingRepository extends CrudRepository<Greeting, Long>, GreetingQueries {
 
     /**
-     * Find greetings by name
-     * Jakarta Data automatically implements this method based on the method name
-     */
-    List<Greeting> findByName(String name);
-
-    /**
-     * Count greetings by name
-     * Jakarta Data automatically implements this method based on the method name
+     * Find greeting by ID
+     * Redeclared so the CrudRepository and GreetingQueries signatures resolve to one method
      */
-    long countByName(String name);
-
-
-    /**
-     * Find greetings containing name (case-insensitive)
-     * Jakarta Data automatically implements this method based on the method name
-     */
-    List<Greeting> findByNameContainingIgnoreCase(String name);
-
-    /**
-     * Find greetings ordered by creation timestamp
-     * Jakarta Data automatically implements this method based on the method name
-     */
-    List<Greeting> findAllByOrderByCreatedAtDesc();
-
-    /**
-     * Custom query to find greetings by name prefix
-     * Uses @Query annotation for custom JPQL
-     */
-    @Query("SELECT g FROM Greeting g WHERE g.name LIKE :namePrefix%")
-    List<Greeting> findByNamePrefix(String namePrefix);
+    @Override
+    @Find
+    Optional<Greeting> findById(@By(By.ID) Long id);
 
     /**
      * Delete greetings by name
@@ -55,10 +31,4 @@ public interface GreetingRepository extends CrudRepository<Greeting, Long> {
      */
     @Delete
     void deleteByName(String name);
-
-    /**
-     * Check if greeting exists by name
-     * Jakarta Data automatically implements this method based on the method name
-     */
-    boolean existsByName(String name);
 }
@@ -0,0 +1,165 @@
+package com.example.repository;
+
+import com.example.entity.Greeting;
+import jakarta.annotation.Priority;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.Startup;
+import jakarta.inject.Inject;
+import jakarta.interceptor.Interceptor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Upgrades a greetings table created before names were dictionary-encoded.
+ *
+ * Older deployments stored {@code name} and {@code message} on every row and the greeting type as
+ * its enum name. EclipseLink's {@code create-or-extend-tables} adds the new tables and columns but never
+ * drops or converts existing ones, which leaves {@code NOT NULL} columns that every insert then fails on.
+ * On startup, before anything else touches the data, this fills the {@code names} table, backfills
+ * {@code name_id}, converts {@code greeting_type} to its ordinal and drops the old columns. It does
+ * nothing once the table has the current layout.
+ */
+@ApplicationScoped
+public class GreetingSchemaMigration {
+
+    static final String NAME_INDEX = "idx_greetings_name_id";
+
+    @Inject
+    private Logger logger;
+
+    @Resource(lookup = "jdbc/__default")
+    private DataSource dataSource;
+
+    void onStartup(@Observes @Priority(Interceptor.Priority.LIBRARY_BEFORE) Startup startup) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (migrate(connection)) {
+                logger.info("Migrated greetings table to dictionary-encoded names");
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not migrate the greetings table", e);
+        }
+    }
+
+    /**
+     * Migrate the greetings table if it still has the old layout
+     *
+     * @return true if a migration ran
+     */
+    static boolean migrate(Connection connection) throws SQLException {
+        Map<String, Integer> columns = columns(connection, "greetings");
+        if (!columns.containsKey("name")) {
+            return false;
+        }
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            if (!tableExists(connection, "names")) {
+                statement.executeUpdate("CREATE TABLE names ("
+                        + "id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                        + "name VARCHAR(100) NOT NULL UNIQUE)");
+            }
+            if (!columns.containsKey("name_id")) {
+                statement.executeUpdate("ALTER TABLE greetings ADD COLUMN name_id INTEGER");
+            }
+
+            statement.executeUpdate("INSERT INTO names (name) SELECT DISTINCT g.name FROM greetings g "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM names n WHERE n.name = g.name)");
+            statement.executeUpdate("UPDATE greetings SET name_id = (SELECT n.id FROM names n WHERE n.name = greetings.name)");
+
+            if (columns.containsKey("greeting_type") && isCharacter(columns.get("greeting_type"))) {
+                statement.executeUpdate("ALTER TABLE greetings ADD COLUMN greeting_type_ordinal SMALLINT");
+                statement.executeUpdate("UPDATE greetings SET greeting_type_ordinal = " + ordinalCase());
+                statement.executeUpdate("ALTER TABLE greetings DROP COLUMN greeting_type");
+                statement.executeUpdate("ALTER TABLE greetings RENAME COLUMN greeting_type_ordinal TO greeting_type");
+            }
+
+            if (columns.containsKey("message")) {
+                statement.executeUpdate("ALTER TABLE greetings DROP COLUMN message");
+            }
+            statement.executeUpdate("ALTER TABLE greetings DROP COLUMN name");
+
+            if (!indexExists(connection, "greetings", NAME_INDEX)) {
+                statement.executeUpdate("CREATE INDEX " + NAME_INDEX + " ON greetings (name_id)");
+            }
+            connection.commit();
+            return true;
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * CASE expression mapping stored enum names to ordinals
+     */
+    private static String ordinalCase() {
+        StringBuilder sql = new StringBuilder("CASE greeting_type");
+        for (Greeting.GreetingType type : Greeting.GreetingType.values()) {
+            sql.append(" WHEN '").append(type.name()).append("' THEN ").append(type.ordinal());
+        }
+        return sql.append(" END").toString();
+    }
+
+    private static boolean isCharacter(int sqlType) {
+        return sqlType == Types.VARCHAR || sqlType == Types.CHAR || sqlType == Types.LONGVARCHAR
+                || sqlType == Types.NVARCHAR || sqlType == Types.NCHAR;
+    }
+
+    /**
+     * Column names (lower case) and JDBC types of a table in the connection's schema
+     */
+    private static Map<String, Integer> columns(Connection connection, String table) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        Map<String, Integer> columns = new HashMap<>();
+        try (ResultSet rs = metaData.getColumns(connection.getCatalog(), connection.getSchema(),
+                identifier(metaData, table), null)) {
+            while (rs.next()) {
+                columns.put(rs.getString("COLUMN_NAME").toLowerCase(Locale.ROOT), rs.getInt("DATA_TYPE"));
+            }
+        }
+        return columns;
+    }
+
+    private static boolean tableExists(Connection connection, String table) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet rs = metaData.getTables(connection.getCatalog(), connection.getSchema(),
+                identifier(metaData, table), new String[]{"TABLE"})) {
+            return rs.next();
+        }
+    }
+
+    private static boolean indexExists(Connection connection, String table, String index) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(),
+                identifier(metaData, table), false, true)) {
+            while (rs.next()) {
+                if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String identifier(DatabaseMetaData metaData, String name) throws SQLException {
+        if (metaData.storesUpperCaseIdentifiers()) {
+            return name.toUpperCase(Locale.ROOT);
+        }
+        return metaData.storesLowerCaseIdentifiers() ? name.toLowerCase(Locale.ROOT) : name;
+    }
+}
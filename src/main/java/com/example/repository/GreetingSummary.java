@@ -0,0 +1,9 @@
+package com.example.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Narrow projection of a Greeting for list endpoints that only need identity and timing
+ */
+public record GreetingSummary(Long id, String name, LocalDateTime createdAt) {
+}
@@ -0,0 +1,18 @@
+package com.example.repository;
+
+import com.example.entity.Greeting;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a Greeting that adds the greeting type to {@link GreetingSummary}, which is all the message is derived from
+ */
+public record GreetingTypedSummary(Long id, String name, Greeting.GreetingType greetingType, LocalDateTime createdAt) {
+
+    /**
+     * Derive the message the same way {@link Greeting#getMessage()} does
+     */
+    public String message() {
+        return (greetingType == null || name == null) ? null : greetingType.format(name);
+    }
+}
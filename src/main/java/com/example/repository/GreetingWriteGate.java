@@ -0,0 +1,60 @@
+package com.example.repository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps greeting writes from overlapping a bulk replacement of the greetings and names tables.
+ *
+ * Writes share the gate with each other; a snapshot restore suspends it, waiting for in-flight writes
+ * to finish. Writes arriving while it is suspended wait up to {@code greetings.write-gate.wait-ms}
+ * and then fail with {@link WritesSuspendedException}.
+ */
+@ApplicationScoped
+public class GreetingWriteGate {
+
+    @Inject
+    @ConfigProperty(name = "greetings.write-gate.wait-ms", defaultValue = "5000")
+    private long waitMillis;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Start a write; must be paired with {@link #exit()} in a finally block
+     *
+     * @throws WritesSuspendedException if the gate stays suspended for the whole wait
+     */
+    public void enter() {
+        try {
+            if (!lock.readLock().tryLock(waitMillis, TimeUnit.MILLISECONDS)) {
+                throw new WritesSuspendedException("Greetings are being restored from a snapshot");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WritesSuspendedException("Interrupted while waiting for a snapshot restore");
+        }
+    }
+
+    public void exit() {
+        lock.readLock().unlock();
+    }
+
+    /**
+     * Block new writes and wait for in-flight ones; must be paired with {@link #resume()}
+     */
+    public void suspend() {
+        lock.writeLock().lock();
+    }
+
+    public void resume() {
+        lock.writeLock().unlock();
+    }
+
+    public boolean isSuspended() {
+        return lock.isWriteLocked();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.repository;
+
+import com.example.entity.GreetingName;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.spi.CDI;
+import jakarta.inject.Inject;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * In-memory bidirectional cache of the greeting name dictionary (name to integer key and back).
+ *
+ * Dictionary entries are never changed or removed once created, so cached entries never go stale;
+ * only misses reach the database. The one exception is a snapshot restore, which may reassign ids:
+ * it replaces the table while greeting writes are suspended and clears this cache before they resume.
+ * The cache is per instance, so other instances sharing the database must be restarted after a restore.
+ *
+ * Outside the container, install a dictionary with {@link #useStandalone} so the entity converter and
+ * listener, which then get no injection, can still find one.
+ */
+@ApplicationScoped
+public class NameDictionary {
+
+    @Inject
+    private Logger logger;
+
+    @Inject
+    private NameStore nameStore;
+
+    private final Map<String, Integer> idsByName = new ConcurrentHashMap<>();
+    private final Map<Integer, String> namesById = new ConcurrentHashMap<>();
+
+    private static volatile NameDictionary standalone;
+
+    /**
+     * Constructor used by CDI
+     */
+    public NameDictionary() {
+    }
+
+    /**
+     * Create a dictionary for use outside the container
+     */
+    public NameDictionary(NameStore nameStore) {
+        this.logger = Logger.getLogger(NameDictionary.class.getName());
+        this.nameStore = nameStore;
+    }
+
+    /**
+     * Set the dictionary returned by {@link #lookup()} outside the container, or null to remove it
+     */
+    public static void useStandalone(NameDictionary dictionary) {
+        standalone = dictionary;
+    }
+
+    /**
+     * Find the dictionary for objects the container did not inject, such as JPA converters in a
+     * RESOURCE_LOCAL unit: the standalone dictionary if one is installed, else the CDI bean
+     *
+     * @throws IllegalStateException if neither is available
+     */
+    public static NameDictionary lookup() {
+        NameDictionary dictionary = standalone;
+        if (dictionary != null) {
+            return dictionary;
+        }
+        try {
+            return CDI.current().select(NameDictionary.class).get();
+        } catch (IllegalStateException e) {
+            throw new IllegalStateException("No NameDictionary available: outside the container, "
+                    + "install one with NameDictionary.useStandalone", e);
+        }
+    }
+
+    /**
+     * Get the key for a name, creating the dictionary entry if needed
+     */
+    public int register(String name) {
+        Integer id = idOf(name);
+        if (id != null) {
+            return id;
+        }
+        try {
+            return cache(nameStore.insert(name));
+        } catch (RuntimeException e) {
+            // Another writer may have inserted the same name concurrently
+            Optional<GreetingName> existing = nameStore.findByName(name);
+            if (existing.isPresent()) {
+                return cache(existing.get());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Get the key for a known name, or null if the name is not in the dictionary
+     */
+    public Integer idOf(String name) {
+        Integer id = idsByName.get(name);
+        if (id != null) {
+            return id;
+        }
+        return nameStore.findByName(name).map(this::cache).orElse(null);
+    }
+
+    /**
+     * Get the name for a dictionary key
+     *
+     * @throws IllegalStateException if the key is not in the dictionary
+     */
+    public String nameOf(int id) {
+        String name = namesById.get(id);
+        if (name != null) {
+            return name;
+        }
+        GreetingName entry = nameStore.findById(id)
+                .orElseThrow(() -> new IllegalStateException("Unknown name ID: " + id));
+        cache(entry);
+        return entry.getName();
+    }
+
+    /**
+     * Drop all cached entries after the dictionary table was reloaded
+     */
+    public void clear() {
+        logger.info("Clearing name dictionary cache of " + idsByName.size() + " entries");
+        idsByName.clear();
+        namesById.clear();
+    }
+
+    public int size() {
+        return idsByName.size();
+    }
+
+    private int cache(GreetingName entry) {
+        idsByName.put(entry.getName(), entry.getId());
+        namesById.put(entry.getId(), entry.getName());
+        return entry.getId();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.repository;
+
+import com.example.entity.GreetingName;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Database access for the greeting name dictionary, used by {@link NameDictionary} on cache misses
+ *
+ * In the container it uses the injected {@code default} persistence context. Outside it, e.g. with
+ * the RESOURCE_LOCAL {@code test} unit, it is created over an EntityManagerFactory and runs each
+ * call on a short-lived EntityManager of its own.
+ */
+@ApplicationScoped
+public class NameStore {
+
+    @PersistenceContext(unitName = "default")
+    private EntityManager entityManager;
+
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Constructor used by CDI
+     */
+    public NameStore() {
+    }
+
+    /**
+     * Create a store for use outside the container
+     */
+    public NameStore(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public Optional<GreetingName> findByName(String name) {
+        return withEntityManager(em -> em
+                .createQuery("SELECT n FROM GreetingName n WHERE n.name = :name", GreetingName.class)
+                .setParameter("name", name)
+                .getResultList()
+                .stream().findFirst());
+    }
+
+    public Optional<GreetingName> findById(Integer id) {
+        return withEntityManager(em -> Optional.ofNullable(em.find(GreetingName.class, id)));
+    }
+
+    /**
+     * Insert a new name in its own transaction, so the entry is visible to every caller
+     * even if the greeting write that needed it rolls back
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public GreetingName insert(String name) {
+        GreetingName entry = new GreetingName(name);
+        if (entityManagerFactory == null) {
+            entityManager.persist(entry);
+            entityManager.flush();
+            return entry;
+        }
+        EntityManager em = entityManagerFactory.createEntityManager();
+        EntityTransaction transaction = em.getTransaction();
+        try {
+            transaction.begin();
+            em.persist(entry);
+            transaction.commit();
+            return entry;
+        } finally {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            em.close();
+        }
+    }
+
+    private <T> T withEntityManager(Function<EntityManager, T> work) {
+        if (entityManagerFactory == null) {
+            return work.apply(entityManager);
+        }
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            return work.apply(em);
+        } finally {
+            em.close();
+        }
+    }
+}
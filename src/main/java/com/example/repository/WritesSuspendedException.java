@@ -0,0 +1,13 @@
+package com.example.repository;
+
+/**
+ * Thrown when a greeting write cannot start because the data is being replaced
+ */
+public class WritesSuspendedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public WritesSuspendedException(String message) {
+        super(message);
+    }
+}
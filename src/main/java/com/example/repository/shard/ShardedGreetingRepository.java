@@ -0,0 +1,793 @@
+package com.example.repository.shard;
+
+import com.example.entity.Greeting;
+import com.example.repository.GreetingRepository;
+import com.example.repository.GreetingSummary;
+import com.example.repository.GreetingTypedSummary;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import jakarta.data.Order;
+import jakarta.data.Sort;
+import jakarta.data.exceptions.DataException;
+import jakarta.data.exceptions.OptimisticLockingFailureException;
+import jakarta.data.page.Page;
+import jakarta.data.page.PageRequest;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Alternative;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * GreetingRepository that hash-shards greetings across several datasources.
+ *
+ * Writes and name-keyed operations go to the single shard owning the name on a consistent hash
+ * ring. Everything else is a parallel scatter-gather over all shards; ordered results are combined
+ * with a k-way merge so each shard only sorts its own rows.
+ *
+ * Ids stay globally unique by encoding the shard index into the low bits:
+ * {@code globalId = localId * MAX_SHARDS + shard}. That also lets {@link #findById} go straight to
+ * the owning shard.
+ *
+ * Each shard has the same normalized schema as the JPA mapping: a {@code names} dictionary and
+ * compact {@code greetings} rows holding the name key and type ordinal. Since a name always
+ * routes to the same shard, its dictionary entry lives only there.
+ *
+ * Rows are never moved between shards, so the shard list is fixed once data is written: each shard
+ * records its index and the shard count in {@code shard_layout}, and startup fails if
+ * {@code greetings.shards.datasources} no longer lists the same datasources in the same order.
+ *
+ * This bean is a CDI alternative. Enable it in {@code WEB-INF/beans.xml} and list the shard
+ * datasources (JNDI names) in the {@code greetings.shards.datasources} config property.
+ */
+@Alternative
+@ApplicationScoped
+public class ShardedGreetingRepository implements GreetingRepository {
+
+    static final int MAX_SHARDS = 1024;
+
+    private static final String TABLE = "greetings";
+
+    private static final String NAMES_TABLE = "names";
+
+    private static final String LAYOUT_TABLE = "shard_layout";
+
+    private static final String FROM = " FROM " + TABLE + " g JOIN " + NAMES_TABLE + " n ON n.id = g.name_id";
+
+    private static final String SELECT_GREETING = "SELECT g.id, n.name, g.greeting_type, g.created_at" + FROM;
+
+    private static final String SELECT_SUMMARY = "SELECT g.id, n.name, g.created_at" + FROM;
+
+    private static final String SELECT_TYPED_SUMMARY = "SELECT g.id, n.name, g.greeting_type, g.created_at" + FROM;
+
+    private static final String CREATE_NAMES_TABLE = "CREATE TABLE " + NAMES_TABLE + " ("
+            + "id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+            + "name VARCHAR(100) NOT NULL UNIQUE)";
+
+    private static final String CREATE_TABLE = "CREATE TABLE " + TABLE + " ("
+            + "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+            + "name_id INTEGER NOT NULL, "
+            + "greeting_type SMALLINT, "
+            + "created_at TIMESTAMP NOT NULL)";
+
+    private static final String CREATE_LAYOUT_TABLE = "CREATE TABLE " + LAYOUT_TABLE + " ("
+            + "shard_index INTEGER NOT NULL, "
+            + "shard_count INTEGER NOT NULL)";
+
+    private static final String CREATE_NAME_INDEX = "CREATE INDEX idx_greetings_name_id ON " + TABLE + " (name_id)";
+
+    private static final Comparator<Greeting> NEWEST_FIRST = Comparator
+            .comparing(Greeting::getCreatedAt, Comparator.reverseOrder())
+            .thenComparing(Greeting::getId, Comparator.reverseOrder());
+
+    private static final Logger logger = Logger.getLogger(ShardedGreetingRepository.class.getName());
+
+    @Inject
+    @ConfigProperty(name = "greetings.shards.datasources", defaultValue = "")
+    private String shardDataSourceNames;
+
+    @Resource
+    private ManagedExecutorService managedExecutor;
+
+    private List<DataSource> shards;
+    private ConsistentHashRing ring;
+    private Executor executor;
+
+    // Name dictionary cache; a name only ever lives on the shard that owns it, so one map covers all shards
+    private final Map<String, Integer> nameIds = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor used by CDI; shards are resolved from configuration in {@link #init()}
+     */
+    public ShardedGreetingRepository() {
+    }
+
+    /**
+     * Create a repository over the given shard datasources, e.g. several H2 in-memory databases
+     */
+    public ShardedGreetingRepository(List<DataSource> shards, Executor executor) {
+        configure(shards, executor);
+    }
+
+    @PostConstruct
+    void init() {
+        List<DataSource> dataSources = new ArrayList<>();
+        try {
+            InitialContext context = new InitialContext();
+            for (String name : shardDataSourceNames.split(",")) {
+                if (!name.trim().isEmpty()) {
+                    dataSources.add((DataSource) context.lookup(name.trim()));
+                }
+            }
+        } catch (NamingException e) {
+            throw new IllegalStateException("Unable to look up shard datasources: " + shardDataSourceNames, e);
+        }
+        if (dataSources.isEmpty()) {
+            throw new IllegalStateException("greetings.shards.datasources must list at least one datasource");
+        }
+        configure(dataSources, managedExecutor);
+        createSchemaIfMissing();
+        logger.info("Greeting repository sharded across " + dataSources.size() + " datasources");
+    }
+
+    private void configure(List<DataSource> dataSources, Executor executor) {
+        if (dataSources.isEmpty() || dataSources.size() > MAX_SHARDS) {
+            throw new IllegalArgumentException("Shard count must be between 1 and " + MAX_SHARDS);
+        }
+        this.shards = List.copyOf(dataSources);
+        this.ring = new ConsistentHashRing(dataSources.size());
+        this.executor = executor;
+    }
+
+    /**
+     * Create the names and greetings tables on any shard that does not have them yet, and check that
+     * every shard is still at the index and shard count it was first used with
+     *
+     * @throws IllegalStateException if the configured shard list differs from the recorded layout
+     */
+    public void createSchemaIfMissing() {
+        scatter(shard -> {
+            try (Connection connection = shards.get(shard).getConnection();
+                 Statement statement = connection.createStatement()) {
+                checkLayout(connection, statement, shard);
+                if (!tableExists(connection.getMetaData(), NAMES_TABLE)) {
+                    statement.executeUpdate(CREATE_NAMES_TABLE);
+                    logger.info("Created names table on shard " + shard);
+                }
+                if (!tableExists(connection.getMetaData(), TABLE)) {
+                    statement.executeUpdate(CREATE_TABLE);
+                    statement.executeUpdate(CREATE_NAME_INDEX);
+                    logger.info("Created greetings table on shard " + shard);
+                }
+            }
+            return null;
+        });
+    }
+
+    private void checkLayout(Connection connection, Statement statement, int shard) throws SQLException {
+        if (!tableExists(connection.getMetaData(), LAYOUT_TABLE)) {
+            statement.executeUpdate(CREATE_LAYOUT_TABLE);
+        }
+        try (ResultSet layout = statement.executeQuery("SELECT shard_index, shard_count FROM " + LAYOUT_TABLE)) {
+            if (layout.next()) {
+                int recordedIndex = layout.getInt(1);
+                int recordedCount = layout.getInt(2);
+                if (recordedIndex != shard || recordedCount != shards.size()) {
+                    throw new IllegalStateException("Datasource " + shard + " of " + shards.size()
+                            + " holds shard " + recordedIndex + " of " + recordedCount + "; rows are not moved "
+                            + "between shards, so greetings.shards.datasources must keep its original order and size");
+                }
+                return;
+            }
+        }
+        statement.executeUpdate("INSERT INTO " + LAYOUT_TABLE + " (shard_index, shard_count) VALUES ("
+                + shard + ", " + shards.size() + ")");
+        logger.info("Recorded shard layout " + shard + " of " + shards.size());
+    }
+
+    private static boolean tableExists(DatabaseMetaData metaData, String table) throws SQLException {
+        for (String name : new String[] {table, table.toUpperCase()}) {
+            try (ResultSet tables = metaData.getTables(null, null, name, new String[] {"TABLE"})) {
+                if (tables.next()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Routing
+
+    int shardForName(String name) {
+        return ring.shardFor(name);
+    }
+
+    static int shardOf(long globalId) {
+        return Math.floorMod(globalId, MAX_SHARDS);
+    }
+
+    /**
+     * Check if an id was issued by this repository, i.e. it is non-negative and encodes a configured shard
+     */
+    private boolean routable(long globalId) {
+        return globalId >= 0 && shardOf(globalId) < shards.size();
+    }
+
+    static long localId(long globalId) {
+        return globalId / MAX_SHARDS;
+    }
+
+    static long globalId(long localId, int shard) {
+        return localId * MAX_SHARDS + shard;
+    }
+
+    /**
+     * Get the dictionary key of a name on its shard, optionally creating the entry
+     *
+     * @return the key, or null if the name is unknown and {@code create} is false
+     */
+    private Integer nameId(int shard, String name, boolean create) {
+        Integer cached = nameIds.get(name);
+        if (cached != null) {
+            return cached;
+        }
+        String select = "SELECT id FROM " + NAMES_TABLE + " WHERE name = ?";
+        List<Integer> found = query(shard, select, (row, s) -> row.getInt(1), name);
+        if (found.isEmpty() && create) {
+            try (Connection connection = shards.get(shard).getConnection();
+                 PreparedStatement statement = connection.prepareStatement(
+                         "INSERT INTO " + NAMES_TABLE + " (name) VALUES (?)", Statement.RETURN_GENERATED_KEYS)) {
+                statement.setString(1, name);
+                statement.executeUpdate();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        found = List.of(keys.getInt(1));
+                    }
+                }
+            } catch (SQLException e) {
+                // Another writer may have inserted the same name concurrently
+                found = query(shard, select, (row, s) -> row.getInt(1), name);
+                if (found.isEmpty()) {
+                    throw new DataException("Failed to add name to dictionary on shard " + shard, e);
+                }
+            }
+        }
+        if (found.isEmpty()) {
+            return null;
+        }
+        nameIds.put(name, found.get(0));
+        return found.get(0);
+    }
+
+    // Writes
+
+    @Override
+    public <S extends Greeting> S save(S entity) {
+        return entity.getId() == null ? insertRow(entity) : updateRow(entity, false);
+    }
+
+    @Override
+    public <S extends Greeting> List<S> saveAll(List<S> entities) {
+        List<S> saved = new ArrayList<>(entities.size());
+        for (S entity : entities) {
+            saved.add(save(entity));
+        }
+        return saved;
+    }
+
+    @Override
+    public <S extends Greeting> S insert(S entity) {
+        if (entity.getId() != null) {
+            throw new IllegalArgumentException("Ids of sharded greetings are assigned on insert");
+        }
+        return insertRow(entity);
+    }
+
+    @Override
+    public <S extends Greeting> List<S> insertAll(List<S> entities) {
+        List<S> inserted = new ArrayList<>(entities.size());
+        for (S entity : entities) {
+            inserted.add(insert(entity));
+        }
+        return inserted;
+    }
+
+    @Override
+    public <S extends Greeting> S update(S entity) {
+        return updateRow(entity, true);
+    }
+
+    @Override
+    public <S extends Greeting> List<S> updateAll(List<S> entities) {
+        List<S> updated = new ArrayList<>(entities.size());
+        for (S entity : entities) {
+            updated.add(update(entity));
+        }
+        return updated;
+    }
+
+    private <S extends Greeting> S insertRow(S entity) {
+        int shard = shardForName(entity.getName());
+        if (entity.getCreatedAt() == null) {
+            entity.setCreatedAt(LocalDateTime.now());
+        }
+        int nameId = nameId(shard, entity.getName(), true);
+        String sql = "INSERT INTO " + TABLE + " (name_id, greeting_type, created_at) VALUES (?, ?, ?)";
+        try (Connection connection = shards.get(shard).getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            statement.setInt(1, nameId);
+            statement.setObject(2, ordinal(entity.getGreetingType()));
+            statement.setTimestamp(3, Timestamp.valueOf(entity.getCreatedAt()));
+            statement.executeUpdate();
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                if (!keys.next()) {
+                    throw new DataException("No id generated for greeting on shard " + shard);
+                }
+                entity.setId(globalId(keys.getLong(1), shard));
+            }
+            return entity;
+        } catch (SQLException e) {
+            throw new DataException("Failed to insert greeting on shard " + shard, e);
+        }
+    }
+
+    private <S extends Greeting> S updateRow(S entity, boolean requireExisting) {
+        long id = entity.getId();
+        int shard = shardOf(id);
+        if (!routable(id) || shard != shardForName(entity.getName())) {
+            throw new IllegalArgumentException("Greeting " + id + " cannot move to the shard owning name " + entity.getName());
+        }
+        String sql = "UPDATE " + TABLE + " SET name_id = ?, greeting_type = ?, created_at = ? WHERE id = ?";
+        int updated = executeUpdate(shard, sql, nameId(shard, entity.getName(), true),
+                ordinal(entity.getGreetingType()),
+                entity.getCreatedAt() == null ? Timestamp.valueOf(LocalDateTime.now()) : Timestamp.valueOf(entity.getCreatedAt()),
+                localId(id));
+        if (updated == 0) {
+            if (requireExisting) {
+                throw new OptimisticLockingFailureException("Greeting not found with ID: " + id);
+            }
+            throw new IllegalArgumentException("Greeting not found with ID: " + id);
+        }
+        return entity;
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        if (routable(id)) {
+            executeUpdate(shardOf(id), "DELETE FROM " + TABLE + " WHERE id = ?", localId(id));
+        }
+    }
+
+    @Override
+    public void delete(Greeting entity) {
+        deleteById(entity.getId());
+    }
+
+    @Override
+    public void deleteAll(List<? extends Greeting> entities) {
+        for (Greeting entity : entities) {
+            delete(entity);
+        }
+    }
+
+    @Override
+    public void deleteByName(String name) {
+        int shard = shardForName(name);
+        Integer nameId = nameId(shard, name, false);
+        if (nameId != null) {
+            executeUpdate(shard, "DELETE FROM " + TABLE + " WHERE name_id = ?", nameId);
+        }
+    }
+
+    // Single-shard reads
+
+    @Override
+    public Optional<Greeting> findById(Long id) {
+        if (!routable(id)) {
+            return Optional.empty();
+        }
+        List<Greeting> found = query(shardOf(id), SELECT_GREETING + " WHERE g.id = ?",
+                ShardedGreetingRepository::mapGreeting, localId(id));
+        return found.stream().findFirst();
+    }
+
+    @Override
+    public List<Greeting> findByName(String name) {
+        int shard = shardForName(name);
+        Integer nameId = nameId(shard, name, false);
+        return nameId == null ? List.of()
+                : query(shard, SELECT_GREETING + " WHERE g.name_id = ?", ShardedGreetingRepository::mapGreeting, nameId);
+    }
+
+    @Override
+    public long countByName(String name) {
+        int shard = shardForName(name);
+        Integer nameId = nameId(shard, name, false);
+        return nameId == null ? 0 : count(shard, "SELECT COUNT(*) FROM " + TABLE + " WHERE name_id = ?", nameId);
+    }
+
+    @Override
+    public boolean existsByName(String name) {
+        return countByName(name) > 0;
+    }
+
+    @Override
+    public List<GreetingSummary> findSummariesByName(String name) {
+        int shard = shardForName(name);
+        Integer nameId = nameId(shard, name, false);
+        return nameId == null ? List.of()
+                : query(shard, SELECT_SUMMARY + " WHERE g.name_id = ?", ShardedGreetingRepository::mapSummary, nameId);
+    }
+
+    @Override
+    public List<GreetingTypedSummary> findTypedSummariesByName(String name) {
+        int shard = shardForName(name);
+        Integer nameId = nameId(shard, name, false);
+        return nameId == null ? List.of()
+                : query(shard, SELECT_TYPED_SUMMARY + " WHERE g.name_id = ?", ShardedGreetingRepository::mapTypedSummary, nameId);
+    }
+
+    // Scatter-gather reads
+
+    @Override
+    public Stream<Greeting> findAll() {
+        return concat(scatter(shard -> query(shard, SELECT_GREETING, ShardedGreetingRepository::mapGreeting))).stream();
+    }
+
+    @Override
+    public long countAll() {
+        long total = 0;
+        for (Long count : scatter(shard -> count(shard, "SELECT COUNT(*) FROM " + TABLE))) {
+            total += count;
+        }
+        return total;
+    }
+
+    @Override
+    public List<Greeting> findAllByOrderByCreatedAtDesc() {
+        String sql = SELECT_GREETING + " ORDER BY g.created_at DESC, g.id DESC";
+        return mergeSorted(scatter(shard -> query(shard, sql, ShardedGreetingRepository::mapGreeting)), NEWEST_FIRST);
+    }
+
+    @Override
+    public List<Greeting> findByNameContainingIgnoreCase(String name) {
+        String sql = SELECT_GREETING + " WHERE LOWER(n.name) LIKE ?";
+        String pattern = "%" + name.toLowerCase() + "%";
+        return concat(scatter(shard -> query(shard, sql, ShardedGreetingRepository::mapGreeting, pattern)));
+    }
+
+    @Override
+    public List<Greeting> findByNamePrefix(String namePrefix) {
+        String sql = SELECT_GREETING + " WHERE n.name LIKE ?";
+        return concat(scatter(shard -> query(shard, sql, ShardedGreetingRepository::mapGreeting, namePrefix + "%")));
+    }
+
+    @Override
+    public List<GreetingSummary> findAllSummaries() {
+        String sql = SELECT_SUMMARY;
+        return concat(scatter(shard -> query(shard, sql, ShardedGreetingRepository::mapSummary)));
+    }
+
+    @Override
+    public List<GreetingSummary> findSummariesByNameContaining(String name) {
+        String sql = SELECT_SUMMARY + " WHERE LOWER(n.name) LIKE ?";
+        String pattern = "%" + name.toLowerCase() + "%";
+        return concat(scatter(shard -> query(shard, sql, ShardedGreetingRepository::mapSummary, pattern)));
+    }
+
+    @Override
+    public List<GreetingTypedSummary> findAllTypedSummaries() {
+        String sql = SELECT_TYPED_SUMMARY;
+        return concat(scatter(shard -> query(shard, sql, ShardedGreetingRepository::mapTypedSummary)));
+    }
+
+    @Override
+    public List<GreetingTypedSummary> findTypedSummariesByNameContaining(String name) {
+        String sql = SELECT_TYPED_SUMMARY + " WHERE LOWER(n.name) LIKE ?";
+        String pattern = "%" + name.toLowerCase() + "%";
+        return concat(scatter(shard -> query(shard, sql, ShardedGreetingRepository::mapTypedSummary, pattern)));
+    }
+
+    /**
+     * Offset pagination across shards: each shard returns its first {@code page * size + 1} rows in
+     * the requested order and the merged result is sliced. Cursor pagination is not supported.
+     */
+    @Override
+    public Page<Greeting> findAll(PageRequest pageRequest, Order<Greeting> sortBy) {
+        if (pageRequest.mode() != PageRequest.Mode.OFFSET) {
+            throw new UnsupportedOperationException("Cursor-based pagination is not supported across shards");
+        }
+        long limit = pageRequest.page() * pageRequest.size() + 1;
+        String sql = SELECT_GREETING + orderByClause(sortBy) + " FETCH FIRST " + limit + " ROWS ONLY";
+        List<Greeting> merged = mergeSorted(scatter(shard -> query(shard, sql, ShardedGreetingRepository::mapGreeting)),
+                comparator(sortBy));
+
+        int from = (int) Math.min(merged.size(), (pageRequest.page() - 1) * pageRequest.size());
+        int to = from + Math.min(merged.size() - from, pageRequest.size());
+        long total = pageRequest.requestTotal() ? countAll() : -1;
+        return new ShardedPage(List.copyOf(merged.subList(from, to)), pageRequest, total, merged.size() > to);
+    }
+
+    private static String orderByClause(Order<Greeting> sortBy) {
+        StringBuilder clause = new StringBuilder(" ORDER BY ");
+        for (Sort<? super Greeting> sort : sortBy) {
+            String column = column(sort.property());
+            clause.append(sort.ignoreCase() ? "LOWER(" + column + ")" : column)
+                    .append(sort.isAscending() ? " ASC" : " DESC")
+                    .append(", ");
+        }
+        return clause.append("g.id ASC").toString();
+    }
+
+    private static Comparator<Greeting> comparator(Order<Greeting> sortBy) {
+        Comparator<Greeting> comparator = null;
+        for (Sort<? super Greeting> sort : sortBy) {
+            Comparator<Greeting> next = propertyComparator(sort.property(), sort.ignoreCase());
+            if (sort.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        Comparator<Greeting> byId = Comparator.comparing(Greeting::getId);
+        return comparator == null ? byId : comparator.thenComparing(byId);
+    }
+
+    private static Comparator<Greeting> propertyComparator(String property, boolean ignoreCase) {
+        Comparator<String> strings = ignoreCase ? String.CASE_INSENSITIVE_ORDER : Comparator.naturalOrder();
+        return switch (property) {
+            case "id" -> Comparator.comparing(Greeting::getId);
+            case "name" -> Comparator.comparing(Greeting::getName, strings);
+            case "greetingType" -> Comparator.comparing(Greeting::getGreetingType);
+            case "createdAt" -> Comparator.comparing(Greeting::getCreatedAt);
+            default -> throw new IllegalArgumentException("Unknown Greeting property: " + property);
+        };
+    }
+
+    private static String column(String property) {
+        return switch (property) {
+            case "id" -> "g.id";
+            case "name" -> "n.name";
+            case "greetingType" -> "g.greeting_type";
+            case "createdAt" -> "g.created_at";
+            case "message" -> throw new IllegalArgumentException("Greeting message is derived and cannot be sorted on");
+            default -> throw new IllegalArgumentException("Unknown Greeting property: " + property);
+        };
+    }
+
+    // Scatter-gather plumbing
+
+    @FunctionalInterface
+    private interface ShardCall<R> {
+        R apply(int shard) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface RowMapper<R> {
+        R map(ResultSet row, int shard) throws SQLException;
+    }
+
+    /**
+     * Run the call on every shard in parallel and return the results in shard order
+     */
+    private <R> List<R> scatter(ShardCall<R> call) {
+        List<CompletableFuture<R>> futures = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            int shard = i;
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return call.apply(shard);
+                } catch (SQLException e) {
+                    throw new DataException("Query failed on shard " + shard, e);
+                }
+            }, executor));
+        }
+
+        List<R> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<R> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    private static <T> List<T> concat(List<List<T>> perShard) {
+        int size = 0;
+        for (List<T> rows : perShard) {
+            size += rows.size();
+        }
+        List<T> all = new ArrayList<>(size);
+        for (List<T> rows : perShard) {
+            all.addAll(rows);
+        }
+        return all;
+    }
+
+    /**
+     * K-way merge of per-shard lists that are each already sorted by the comparator
+     */
+    static <T> List<T> mergeSorted(List<List<T>> sortedLists, Comparator<? super T> comparator) {
+        record Head<T>(T value, Iterator<T> rest) {
+        }
+
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>(Math.max(1, sortedLists.size()),
+                (a, b) -> comparator.compare(a.value(), b.value()));
+        int size = 0;
+        for (List<T> list : sortedLists) {
+            size += list.size();
+            Iterator<T> iterator = list.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Head<>(iterator.next(), iterator));
+            }
+        }
+
+        List<T> merged = new ArrayList<>(size);
+        while (!heads.isEmpty()) {
+            Head<T> head = heads.poll();
+            merged.add(head.value());
+            if (head.rest().hasNext()) {
+                heads.add(new Head<>(head.rest().next(), head.rest()));
+            }
+        }
+        return merged;
+    }
+
+    private <R> List<R> query(int shard, String sql, RowMapper<R> mapper, Object... params) {
+        try (Connection connection = shards.get(shard).getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            bind(statement, params);
+            try (ResultSet rows = statement.executeQuery()) {
+                List<R> result = new ArrayList<>();
+                while (rows.next()) {
+                    result.add(mapper.map(rows, shard));
+                }
+                return result;
+            }
+        } catch (SQLException e) {
+            throw new DataException("Query failed on shard " + shard, e);
+        }
+    }
+
+    private long count(int shard, String sql, Object... params) {
+        return query(shard, sql, (row, s) -> row.getLong(1), params).get(0);
+    }
+
+    private int executeUpdate(int shard, String sql, Object... params) {
+        try (Connection connection = shards.get(shard).getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            bind(statement, params);
+            return statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new DataException("Update failed on shard " + shard, e);
+        }
+    }
+
+    private static void bind(PreparedStatement statement, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            statement.setObject(i + 1, params[i]);
+        }
+    }
+
+    private static Greeting mapGreeting(ResultSet row, int shard) throws SQLException {
+        Greeting greeting = new Greeting(row.getString("name"), greetingType(row));
+        greeting.setId(globalId(row.getLong("id"), shard));
+        greeting.setCreatedAt(row.getTimestamp("created_at").toLocalDateTime());
+        return greeting;
+    }
+
+    private static GreetingSummary mapSummary(ResultSet row, int shard) throws SQLException {
+        return new GreetingSummary(globalId(row.getLong("id"), shard), row.getString("name"),
+                row.getTimestamp("created_at").toLocalDateTime());
+    }
+
+    private static GreetingTypedSummary mapTypedSummary(ResultSet row, int shard) throws SQLException {
+        return new GreetingTypedSummary(globalId(row.getLong("id"), shard), row.getString("name"),
+                greetingType(row), row.getTimestamp("created_at").toLocalDateTime());
+    }
+
+    private static Greeting.GreetingType greetingType(ResultSet row) throws SQLException {
+        int ordinal = row.getInt("greeting_type");
+        return row.wasNull() ? null : Greeting.GreetingType.values()[ordinal];
+    }
+
+    private static Integer ordinal(Greeting.GreetingType type) {
+        return type == null ? null : type.ordinal();
+    }
+
+    /**
+     * Page of greetings assembled from several shards
+     */
+    private record ShardedPage(List<Greeting> content, PageRequest pageRequest, long total, boolean more)
+            implements Page<Greeting> {
+
+        @Override
+        public boolean hasContent() {
+            return !content.isEmpty();
+        }
+
+        @Override
+        public int numberOfElements() {
+            return content.size();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return more;
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return pageRequest.page() > 1;
+        }
+
+        @Override
+        public PageRequest nextPageRequest() {
+            if (!more) {
+                throw new NoSuchElementException("No next page");
+            }
+            return PageRequest.ofPage(pageRequest.page() + 1, pageRequest.size(), pageRequest.requestTotal());
+        }
+
+        @Override
+        public PageRequest previousPageRequest() {
+            if (!hasPrevious()) {
+                throw new NoSuchElementException("No previous page");
+            }
+            return PageRequest.ofPage(pageRequest.page() - 1, pageRequest.size(), pageRequest.requestTotal());
+        }
+
+        @Override
+        public boolean hasTotals() {
+            return total >= 0;
+        }
+
+        @Override
+        public long totalElements() {
+            if (!hasTotals()) {
+                throw new IllegalStateException("Total was not requested");
+            }
+            return total;
+        }
+
+        @Override
+        public long totalPages() {
+            return (totalElements() + pageRequest.size() - 1) / pageRequest.size();
+        }
+
+        @Override
+        public Iterator<Greeting> iterator() {
+            return content.iterator();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.snapshot;
+
+import com.example.repository.GreetingWriteGate;
+import com.example.repository.NameDictionary;
+import jakarta.annotation.Priority;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.Startup;
+import jakarta.inject.Inject;
+import jakarta.interceptor.Interceptor;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * Dumps and restores the greetings dataset as a compressed columnar snapshot.
+ *
+ * Used by the admin snapshot endpoints, which are disabled unless {@code greetings.snapshot.admin-enabled}
+ * is set, and at startup when {@code greetings.snapshot.load-on-startup} names a snapshot file. The
+ * startup load finishes before the warm-up starts, so the health endpoint only reports ready once the
+ * data is in place.
+ *
+ * A restore suspends greeting writes until the tables are replaced and the name dictionary cache is
+ * cleared. Other instances sharing the database are not notified and must be restarted afterwards.
+ */
+@ApplicationScoped
+public class GreetingSnapshots {
+
+    @Inject
+    private Logger logger;
+
+    @Inject
+    private NameDictionary nameDictionary;
+
+    @Inject
+    private GreetingWriteGate writeGate;
+
+    @Resource(lookup = "jdbc/__default")
+    private DataSource dataSource;
+
+    @Resource
+    private ManagedExecutorService executor;
+
+    @Inject
+    @ConfigProperty(name = "greetings.snapshot.load-on-startup")
+    private Optional<String> startupSnapshot;
+
+    @Inject
+    @ConfigProperty(name = "greetings.snapshot.admin-enabled", defaultValue = "false")
+    private boolean adminEnabled;
+
+    @Inject
+    @ConfigProperty(name = "greetings.snapshot.threads", defaultValue = "4")
+    private int threads;
+
+    @Inject
+    @ConfigProperty(name = "greetings.snapshot.batch-size", defaultValue = "1000")
+    private int batchSize;
+
+    @Inject
+    @ConfigProperty(name = "greetings.snapshot.block-rows", defaultValue = "65536")
+    private int blockRows;
+
+    void onStartup(@Observes @Priority(Interceptor.Priority.APPLICATION) Startup startup) {
+        if (startupSnapshot.isEmpty() || startupSnapshot.get().isBlank()) {
+            return;
+        }
+        Path path = Path.of(startupSnapshot.get().trim());
+        logger.info("Loading greetings snapshot from " + path);
+        try {
+            restore(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load greetings snapshot " + path, e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not load greetings snapshot " + path, e);
+        }
+    }
+
+    /**
+     * Whether snapshots may be dumped and restored over HTTP
+     */
+    public boolean isAdminEnabled() {
+        return adminEnabled;
+    }
+
+    /**
+     * Write a snapshot of all greetings and names
+     */
+    public SnapshotCounts dump(OutputStream out) throws IOException {
+        try {
+            SnapshotCounts counts = new SnapshotWriter(dataSource, blockRows).write(Channels.newChannel(out));
+            out.flush();
+            logger.info("Wrote snapshot of " + counts.greetings() + " greetings and " + counts.names()
+                    + " names in " + counts.elapsedMillis() + " ms");
+            return counts;
+        } catch (SQLException e) {
+            throw new IOException("Failed to read greetings for snapshot", e);
+        }
+    }
+
+    /**
+     * Replace all greetings and names with the snapshot read from the stream
+     */
+    public SnapshotCounts restore(InputStream in) throws IOException, SQLException {
+        return replace(Channels.newChannel(in));
+    }
+
+    /**
+     * Replace all greetings and names with the snapshot in a file
+     */
+    public SnapshotCounts restore(Path path) throws IOException, SQLException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return replace(channel);
+        }
+    }
+
+    private synchronized SnapshotCounts replace(ReadableByteChannel channel) throws IOException, SQLException {
+        writeGate.suspend();
+        try {
+            SnapshotCounts counts = loader().load(channel);
+            logger.warning("Greetings were replaced from a snapshot; restart other instances sharing this "
+                    + "database so they drop their cached name ids");
+            return counts;
+        } finally {
+            // Name ids may have been reassigned; no write may resume with a cached one
+            nameDictionary.clear();
+            writeGate.resume();
+        }
+    }
+
+    private SnapshotLoader loader() {
+        return new SnapshotLoader(dataSource, executor, threads, batchSize);
+    }
+}
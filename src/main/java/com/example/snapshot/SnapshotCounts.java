@@ -0,0 +1,7 @@
+package com.example.snapshot;
+
+/**
+ * Number of rows written to or loaded from a snapshot
+ */
+public record SnapshotCounts(long greetings, long names, long elapsedMillis) {
+}
@@ -0,0 +1,371 @@
+package com.example.snapshot;
+
+import com.example.entity.Greeting;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary layout of a greetings snapshot.
+ *
+ * A snapshot is a header followed by independently compressed blocks, ended by an end marker:
+ * <pre>
+ *   header  int magic 'GSNP', short version
+ *   block   byte kind, int rows, int rawLength, int compressedLength, int crc32, byte[] deflated
+ *   end     byte 0
+ * </pre>
+ * Blocks are columnar. A greetings block holds the delta-encoded ids, then the name ids, the type
+ * ordinals and the delta-encoded creation times (epoch microseconds, UTC); a names block holds the
+ * delta-encoded ids, the UTF-8 lengths and then the concatenated UTF-8 names. Integers are zigzag
+ * varints, so sorted ids and times shrink to a byte or two per row before compression.
+ * Because blocks are self-contained they can be decoded and inserted in parallel.
+ *
+ * Snapshots may come from untrusted uploads, so block frames are checked against
+ * {@link #MAX_BLOCK_ROWS} and {@link #MAX_RAW_BYTES} before anything is allocated, and decoding
+ * rejects values that do not fit the schema.
+ */
+final class SnapshotFormat {
+
+    static final int MAGIC = 0x47534E50;
+    static final short VERSION = 1;
+
+    static final byte END = 0;
+    static final byte NAMES = 1;
+    static final byte GREETINGS = 2;
+
+    static final int FRAME_BYTES = 1 + 4 + 4 + 4 + 4;
+
+    static final byte NO_TYPE = -1;
+
+    static final int MAX_BLOCK_ROWS = 1 << 18;
+
+    static final int MAX_RAW_BYTES = 16 << 20;
+
+    /** Names blocks are flushed at this many encoded bytes, well below the raw limit */
+    static final int NAMES_BLOCK_BYTES = 8 << 20;
+
+    static final int MAX_NAME_LENGTH = 100;
+
+    static final int MAX_NAME_BYTES = MAX_NAME_LENGTH * 4;
+
+    private SnapshotFormat() {
+    }
+
+    /**
+     * Column values of a greetings block
+     */
+    record GreetingColumns(long[] ids, int[] nameIds, byte[] types, long[] createdAtMicros, int rows) {
+
+        static GreetingColumns allocate(int capacity) {
+            return new GreetingColumns(new long[capacity], new int[capacity], new byte[capacity], new long[capacity], 0);
+        }
+
+        GreetingColumns withRows(int rows) {
+            return new GreetingColumns(ids, nameIds, types, createdAtMicros, rows);
+        }
+
+        byte[] encode() {
+            ColumnWriter out = new ColumnWriter(rows * 12);
+            long previous = 0;
+            for (int i = 0; i < rows; i++) {
+                out.putVarLong(ids[i] - previous);
+                previous = ids[i];
+            }
+            for (int i = 0; i < rows; i++) {
+                out.putVarLong(nameIds[i]);
+            }
+            out.put(types, rows);
+            previous = 0;
+            for (int i = 0; i < rows; i++) {
+                out.putVarLong(createdAtMicros[i] - previous);
+                previous = createdAtMicros[i];
+            }
+            return out.toByteArray();
+        }
+
+        static GreetingColumns decode(ByteBuffer in, int rows) throws IOException {
+            GreetingColumns columns = allocate(rows).withRows(rows);
+            int typeCount = Greeting.GreetingType.values().length;
+            try {
+                long previous = 0;
+                for (int i = 0; i < rows; i++) {
+                    previous += getVarLong(in);
+                    columns.ids[i] = previous;
+                }
+                for (int i = 0; i < rows; i++) {
+                    columns.nameIds[i] = Math.toIntExact(getVarLong(in));
+                }
+                in.get(columns.types, 0, rows);
+                for (int i = 0; i < rows; i++) {
+                    if (columns.types[i] < NO_TYPE || columns.types[i] >= typeCount) {
+                        throw new IOException("Snapshot has unknown greeting type " + columns.types[i]);
+                    }
+                }
+                previous = 0;
+                for (int i = 0; i < rows; i++) {
+                    previous += getVarLong(in);
+                    columns.createdAtMicros[i] = previous;
+                }
+            } catch (BufferUnderflowException | ArithmeticException e) {
+                throw new IOException("Snapshot greetings block is corrupt", e);
+            }
+            return columns;
+        }
+    }
+
+    /**
+     * Column values of a names block
+     */
+    record NameColumns(int[] ids, String[] names, int rows) {
+
+        static NameColumns allocate(int capacity) {
+            return new NameColumns(new int[capacity], new String[capacity], 0);
+        }
+
+        NameColumns withRows(int rows) {
+            return new NameColumns(ids, names, rows);
+        }
+
+        byte[] encode() {
+            byte[][] utf8 = new byte[rows][];
+            ColumnWriter out = new ColumnWriter(rows * 16);
+            long previous = 0;
+            for (int i = 0; i < rows; i++) {
+                out.putVarLong(ids[i] - previous);
+                previous = ids[i];
+            }
+            for (int i = 0; i < rows; i++) {
+                utf8[i] = names[i].getBytes(StandardCharsets.UTF_8);
+                out.putVarLong(utf8[i].length);
+            }
+            for (int i = 0; i < rows; i++) {
+                out.put(utf8[i], utf8[i].length);
+            }
+            return out.toByteArray();
+        }
+
+        static NameColumns decode(ByteBuffer in, int rows) throws IOException {
+            NameColumns columns = allocate(rows).withRows(rows);
+            int[] lengths = new int[rows];
+            try {
+                long previous = 0;
+                for (int i = 0; i < rows; i++) {
+                    previous += getVarLong(in);
+                    columns.ids[i] = Math.toIntExact(previous);
+                }
+                for (int i = 0; i < rows; i++) {
+                    long length = getVarLong(in);
+                    if (length < 1 || length > MAX_NAME_BYTES) {
+                        throw new IOException("Snapshot has a name of " + length + " bytes");
+                    }
+                    lengths[i] = (int) length;
+                }
+                for (int i = 0; i < rows; i++) {
+                    if (lengths[i] > in.remaining()) {
+                        throw new BufferUnderflowException();
+                    }
+                    columns.names[i] = new String(in.array(), in.arrayOffset() + in.position(), lengths[i], StandardCharsets.UTF_8);
+                    in.position(in.position() + lengths[i]);
+                    if (columns.names[i].length() > MAX_NAME_LENGTH) {
+                        throw new IOException("Snapshot has a name longer than " + MAX_NAME_LENGTH + " characters");
+                    }
+                }
+            } catch (BufferUnderflowException | ArithmeticException e) {
+                throw new IOException("Snapshot names block is corrupt", e);
+            }
+            return columns;
+        }
+    }
+
+    /**
+     * A compressed block as read from or written to a snapshot
+     */
+    record Block(byte kind, int rows, int rawLength, byte[] compressed, int crc) {
+
+        static Block compress(byte kind, int rows, byte[] raw, Deflater deflater) {
+            deflater.reset();
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] buffer = new byte[Math.max(64, raw.length / 2)];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            byte[] compressed = Arrays.copyOf(buffer, length);
+            CRC32 crc = new CRC32();
+            crc.update(compressed);
+            return new Block(kind, rows, raw.length, compressed, (int) crc.getValue());
+        }
+
+        ByteBuffer inflate() throws IOException {
+            CRC32 check = new CRC32();
+            check.update(compressed);
+            if ((int) check.getValue() != crc) {
+                throw new IOException("Snapshot block checksum mismatch");
+            }
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(compressed);
+                byte[] raw = new byte[rawLength];
+                int length = 0;
+                while (length < rawLength && !inflater.finished()) {
+                    length += inflater.inflate(raw, length, rawLength - length);
+                }
+                if (length != rawLength) {
+                    throw new IOException("Snapshot block is truncated");
+                }
+                return ByteBuffer.wrap(raw);
+            } catch (DataFormatException e) {
+                throw new IOException("Snapshot block is corrupt", e);
+            } finally {
+                inflater.end();
+            }
+        }
+
+        void writeTo(WritableByteChannel channel) throws IOException {
+            ByteBuffer frame = ByteBuffer.allocate(FRAME_BYTES);
+            frame.put(kind).putInt(rows).putInt(rawLength).putInt(compressed.length).putInt(crc).flip();
+            writeFully(channel, frame);
+            writeFully(channel, ByteBuffer.wrap(compressed));
+        }
+
+        /**
+         * Read the next block, or return null at the end marker
+         */
+        static Block readFrom(ReadableByteChannel channel) throws IOException {
+            ByteBuffer kind = readFully(channel, ByteBuffer.allocate(1));
+            if (kind.get(0) == END) {
+                return null;
+            }
+            ByteBuffer frame = readFully(channel, ByteBuffer.allocate(FRAME_BYTES - 1));
+            int rows = frame.getInt();
+            int rawLength = frame.getInt();
+            int compressedLength = frame.getInt();
+            int crc = frame.getInt();
+            if (rows < 1 || rows > MAX_BLOCK_ROWS || rawLength < rows || rawLength > MAX_RAW_BYTES
+                    || compressedLength < 0 || compressedLength > deflateBound(rawLength)) {
+                throw new IOException("Snapshot block header is corrupt");
+            }
+            ByteBuffer compressed = readFully(channel, ByteBuffer.allocate(compressedLength));
+            return new Block(kind.get(0), rows, rawLength, compressed.array(), crc);
+        }
+    }
+
+    /**
+     * Upper bound of the deflated size of {@code length} bytes, as in zlib's compressBound
+     */
+    static int deflateBound(int length) {
+        return length + (length >> 12) + (length >> 14) + (length >> 25) + 13;
+    }
+
+    static void writeHeader(WritableByteChannel channel) throws IOException {
+        writeFully(channel, ByteBuffer.allocate(6).putInt(MAGIC).putShort(VERSION).flip());
+    }
+
+    static void writeEnd(WritableByteChannel channel) throws IOException {
+        writeFully(channel, ByteBuffer.wrap(new byte[]{END}));
+    }
+
+    static void readHeader(ReadableByteChannel channel) throws IOException {
+        ByteBuffer header = readFully(channel, ByteBuffer.allocate(6));
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Not a greetings snapshot");
+        }
+        short version = header.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+    }
+
+    static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    static ByteBuffer readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Snapshot ended unexpectedly");
+            }
+        }
+        return buffer.flip();
+    }
+
+    static long toMicros(Timestamp timestamp) {
+        LocalDateTime time = timestamp.toLocalDateTime();
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    static Timestamp toTimestamp(long micros) {
+        return Timestamp.valueOf(LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC));
+    }
+
+    static long getVarLong(ByteBuffer in) {
+        long raw = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            raw |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    /**
+     * Growable byte array for encoding columns
+     */
+    private static final class ColumnWriter {
+
+        private byte[] bytes;
+        private int length;
+
+        ColumnWriter(int capacity) {
+            bytes = new byte[Math.max(16, capacity)];
+        }
+
+        void putVarLong(long value) {
+            ensure(10);
+            long zigzag = (value << 1) ^ (value >> 63);
+            while ((zigzag & ~0x7FL) != 0) {
+                bytes[length++] = (byte) ((zigzag & 0x7F) | 0x80);
+                zigzag >>>= 7;
+            }
+            bytes[length++] = (byte) zigzag;
+        }
+
+        void put(byte[] values, int count) {
+            ensure(count);
+            System.arraycopy(values, 0, bytes, length, count);
+            length += count;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, length);
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+    }
+}
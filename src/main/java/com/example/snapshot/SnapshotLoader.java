@@ -0,0 +1,297 @@
+package com.example.snapshot;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+/**
+ * Replaces the greetings and names tables with the contents of a snapshot.
+ *
+ * The snapshot is read block by block from a channel while up to {@code threads} blocks are
+ * decompressed and inserted concurrently into staging tables, each on its own connection with JDBC
+ * batches committed every {@code batchSize} rows. Only once the whole stream has been read and the
+ * staged rows are checked for duplicate keys and dangling name ids are the live tables replaced,
+ * in a single transaction; a rejected or failed load leaves them untouched. The name index is
+ * dropped while the rows are copied and rebuilt afterwards, and the identity columns are restarted
+ * after the highest loaded id.
+ */
+public class SnapshotLoader {
+
+    static final String NAME_INDEX = "idx_greetings_name_id";
+
+    static final String STAGED_GREETINGS = "snapshot_greetings";
+
+    static final String STAGED_NAMES = "snapshot_names";
+
+    private static final String INSERT_GREETING = "INSERT INTO " + STAGED_GREETINGS
+            + " (id, name_id, greeting_type, created_at) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_NAME = "INSERT INTO " + STAGED_NAMES + " (id, name) VALUES (?, ?)";
+
+    private static final Logger logger = Logger.getLogger(SnapshotLoader.class.getName());
+
+    private final DataSource dataSource;
+    private final Executor executor;
+    private final int threads;
+    private final int batchSize;
+
+    public SnapshotLoader(DataSource dataSource, Executor executor, int threads, int batchSize) {
+        if (threads < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Thread count and batch size must be positive");
+        }
+        this.dataSource = dataSource;
+        this.executor = executor;
+        this.threads = threads;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Load a snapshot, replacing all existing greetings and names
+     *
+     * @throws IOException if the snapshot is malformed, truncated or inconsistent
+     */
+    public SnapshotCounts load(ReadableByteChannel channel) throws IOException, SQLException {
+        long started = System.currentTimeMillis();
+        // Reject anything that is not a snapshot before creating the staging tables
+        SnapshotFormat.readHeader(channel);
+        createStagingTables();
+
+        AtomicLong greetings = new AtomicLong();
+        AtomicLong names = new AtomicLong();
+        try {
+            stage(channel, greetings, names);
+            validateStaging();
+            replaceTables();
+        } finally {
+            dropStagingTables();
+        }
+
+        SnapshotCounts counts = new SnapshotCounts(greetings.get(), names.get(), System.currentTimeMillis() - started);
+        logger.info("Loaded snapshot of " + counts.greetings() + " greetings and " + counts.names()
+                + " names in " + counts.elapsedMillis() + " ms");
+        return counts;
+    }
+
+    private void stage(ReadableByteChannel channel, AtomicLong greetings, AtomicLong names)
+            throws IOException, SQLException {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Semaphore slots = new Semaphore(threads);
+        List<CompletableFuture<Void>> inserts = new ArrayList<>();
+        try {
+            SnapshotFormat.Block block;
+            while (failure.get() == null && (block = SnapshotFormat.Block.readFrom(channel)) != null) {
+                SnapshotFormat.Block next = block;
+                slots.acquire();
+                inserts.add(CompletableFuture.runAsync(() -> insert(next, greetings, names), executor)
+                        .whenComplete((result, error) -> {
+                            slots.release();
+                            if (error != null) {
+                                failure.compareAndSet(null, error);
+                            }
+                        }));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading snapshot");
+        } finally {
+            try {
+                CompletableFuture.allOf(inserts.toArray(new CompletableFuture<?>[0])).join();
+            } catch (CompletionException e) {
+                // Recorded in failure by whenComplete
+            }
+        }
+        rethrow(failure.get());
+    }
+
+    private void createStagingTables() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            // Left behind if the server stopped during an earlier load
+            statement.executeUpdate("DROP TABLE IF EXISTS " + STAGED_GREETINGS);
+            statement.executeUpdate("DROP TABLE IF EXISTS " + STAGED_NAMES);
+            statement.executeUpdate("CREATE TABLE " + STAGED_GREETINGS + " (id BIGINT NOT NULL, "
+                    + "name_id INTEGER NOT NULL, greeting_type SMALLINT, created_at TIMESTAMP NOT NULL)");
+            statement.executeUpdate("CREATE TABLE " + STAGED_NAMES + " (id INTEGER NOT NULL, "
+                    + "name VARCHAR(" + SnapshotFormat.MAX_NAME_LENGTH + ") NOT NULL)");
+        }
+    }
+
+    private void dropStagingTables() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DROP TABLE IF EXISTS " + STAGED_GREETINGS);
+            statement.executeUpdate("DROP TABLE IF EXISTS " + STAGED_NAMES);
+        } catch (SQLException e) {
+            logger.warning("Could not drop snapshot staging tables: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Check the staged rows against the constraints of the live tables, so the swap cannot fail on them
+     */
+    private void validateStaging() throws IOException, SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            createUniqueIndex(statement, STAGED_GREETINGS, "id", "duplicate greeting ids");
+            createUniqueIndex(statement, STAGED_NAMES, "id", "duplicate name ids");
+            createUniqueIndex(statement, STAGED_NAMES, "name", "duplicate names");
+            try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + STAGED_GREETINGS + " g WHERE NOT EXISTS "
+                    + "(SELECT 1 FROM " + STAGED_NAMES + " n WHERE n.id = g.name_id)")) {
+                rs.next();
+                if (rs.getLong(1) > 0) {
+                    throw new IOException("Snapshot has " + rs.getLong(1) + " greetings with unknown name ids");
+                }
+            }
+        }
+    }
+
+    private static void createUniqueIndex(Statement statement, String table, String column, String problem)
+            throws IOException, SQLException {
+        try {
+            statement.executeUpdate("CREATE UNIQUE INDEX " + table + "_" + column + " ON " + table + " (" + column + ")");
+        } catch (SQLException e) {
+            // SQLSTATE class 23 is an integrity constraint violation
+            if (e.getSQLState() != null && e.getSQLState().startsWith("23")) {
+                throw new IOException("Snapshot has " + problem, e);
+            }
+            throw e;
+        }
+    }
+
+    private void replaceTables() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            // Some databases commit DDL implicitly, so the index is dropped before the transaction starts
+            boolean indexDropped = dropNameIndex(statement);
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                statement.executeUpdate("DELETE FROM greetings");
+                statement.executeUpdate("DELETE FROM names");
+                statement.executeUpdate("INSERT INTO names (id, name) SELECT id, name FROM " + STAGED_NAMES);
+                statement.executeUpdate("INSERT INTO greetings (id, name_id, greeting_type, created_at) "
+                        + "SELECT id, name_id, greeting_type, created_at FROM " + STAGED_GREETINGS);
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+                if (indexDropped) {
+                    statement.executeUpdate("CREATE INDEX " + NAME_INDEX + " ON greetings (name_id)");
+                }
+            }
+            restartIdentity(statement, "greetings");
+            restartIdentity(statement, "names");
+        }
+    }
+
+    private static boolean dropNameIndex(Statement statement) {
+        try {
+            statement.executeUpdate("DROP INDEX " + NAME_INDEX);
+            return true;
+        } catch (SQLException e) {
+            logger.fine("Name index not dropped before snapshot load: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void restartIdentity(Statement statement, String table) throws SQLException {
+        long next;
+        try (ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+            rs.next();
+            next = rs.getLong(1);
+        }
+        statement.executeUpdate("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+    }
+
+    private void insert(SnapshotFormat.Block block, AtomicLong greetings, AtomicLong names) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            ByteBuffer raw = block.inflate();
+            switch (block.kind()) {
+                case SnapshotFormat.GREETINGS -> greetings.addAndGet(
+                        insertGreetings(connection, SnapshotFormat.GreetingColumns.decode(raw, block.rows())));
+                case SnapshotFormat.NAMES -> names.addAndGet(
+                        insertNames(connection, SnapshotFormat.NameColumns.decode(raw, block.rows())));
+                default -> throw new IOException("Unknown snapshot block kind " + block.kind());
+            }
+        } catch (IOException | SQLException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private int insertGreetings(Connection connection, SnapshotFormat.GreetingColumns columns) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_GREETING)) {
+            for (int i = 0; i < columns.rows(); i++) {
+                statement.setLong(1, columns.ids()[i]);
+                statement.setInt(2, columns.nameIds()[i]);
+                if (columns.types()[i] == SnapshotFormat.NO_TYPE) {
+                    statement.setNull(3, Types.SMALLINT);
+                } else {
+                    statement.setShort(3, columns.types()[i]);
+                }
+                statement.setTimestamp(4, SnapshotFormat.toTimestamp(columns.createdAtMicros()[i]));
+                statement.addBatch();
+                if ((i + 1) % batchSize == 0) {
+                    statement.executeBatch();
+                    connection.commit();
+                }
+            }
+            statement.executeBatch();
+            connection.commit();
+        }
+        return columns.rows();
+    }
+
+    private int insertNames(Connection connection, SnapshotFormat.NameColumns columns) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_NAME)) {
+            for (int i = 0; i < columns.rows(); i++) {
+                statement.setInt(1, columns.ids()[i]);
+                statement.setString(2, columns.names()[i]);
+                statement.addBatch();
+                if ((i + 1) % batchSize == 0) {
+                    statement.executeBatch();
+                    connection.commit();
+                }
+            }
+            statement.executeBatch();
+            connection.commit();
+        }
+        return columns.rows();
+    }
+
+    private static void rethrow(Throwable failure) throws IOException, SQLException {
+        if (failure == null) {
+            return;
+        }
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        if (cause instanceof IOException e) {
+            throw e;
+        }
+        if (cause instanceof SQLException e) {
+            throw e;
+        }
+        if (cause instanceof RuntimeException e) {
+            throw e;
+        }
+        throw new IOException("Snapshot load failed", cause);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.snapshot;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.zip.Deflater;
+
+/**
+ * Streams the greetings and names tables into a snapshot, one compressed block at a time.
+ *
+ * Greetings are read before names: names are only ever added, so every name id referenced by the
+ * dumped greetings is guaranteed to be in the names that follow, without locking either table.
+ */
+public class SnapshotWriter {
+
+    private static final String SELECT_GREETINGS = "SELECT id, name_id, greeting_type, created_at FROM greetings ORDER BY id";
+
+    private static final String SELECT_NAMES = "SELECT id, name FROM names ORDER BY id";
+
+    private final DataSource dataSource;
+    private final int blockRows;
+
+    public SnapshotWriter(DataSource dataSource, int blockRows) {
+        if (blockRows < 1 || blockRows > SnapshotFormat.MAX_BLOCK_ROWS) {
+            throw new IllegalArgumentException("Block size must be between 1 and " + SnapshotFormat.MAX_BLOCK_ROWS);
+        }
+        this.dataSource = dataSource;
+        this.blockRows = blockRows;
+    }
+
+    /**
+     * Write a full snapshot to the channel
+     */
+    public SnapshotCounts write(WritableByteChannel channel) throws IOException, SQLException {
+        long started = System.currentTimeMillis();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (Connection connection = dataSource.getConnection()) {
+            // Some drivers only stream result sets inside a transaction
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                SnapshotFormat.writeHeader(channel);
+                long greetings = writeGreetings(connection, channel, deflater);
+                long names = writeNames(connection, channel, deflater);
+                SnapshotFormat.writeEnd(channel);
+                return new SnapshotCounts(greetings, names, System.currentTimeMillis() - started);
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(autoCommit);
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private long writeGreetings(Connection connection, WritableByteChannel channel, Deflater deflater)
+            throws IOException, SQLException {
+        SnapshotFormat.GreetingColumns columns = SnapshotFormat.GreetingColumns.allocate(blockRows);
+        long total = 0;
+        int rows = 0;
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_GREETINGS)) {
+            statement.setFetchSize(blockRows);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    columns.ids()[rows] = rs.getLong(1);
+                    columns.nameIds()[rows] = rs.getInt(2);
+                    short type = rs.getShort(3);
+                    columns.types()[rows] = rs.wasNull() ? SnapshotFormat.NO_TYPE : (byte) type;
+                    columns.createdAtMicros()[rows] = SnapshotFormat.toMicros(rs.getTimestamp(4));
+                    if (++rows == blockRows) {
+                        SnapshotFormat.Block.compress(SnapshotFormat.GREETINGS, rows,
+                                columns.withRows(rows).encode(), deflater).writeTo(channel);
+                        total += rows;
+                        rows = 0;
+                    }
+                }
+            }
+        }
+        if (rows > 0) {
+            SnapshotFormat.Block.compress(SnapshotFormat.GREETINGS, rows,
+                    columns.withRows(rows).encode(), deflater).writeTo(channel);
+            total += rows;
+        }
+        return total;
+    }
+
+    private long writeNames(Connection connection, WritableByteChannel channel, Deflater deflater)
+            throws IOException, SQLException {
+        SnapshotFormat.NameColumns columns = SnapshotFormat.NameColumns.allocate(blockRows);
+        long total = 0;
+        int rows = 0;
+        // Upper bound of the encoded size, so long names cannot push a block past the raw limit
+        int bytes = 0;
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_NAMES)) {
+            statement.setFetchSize(blockRows);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    columns.ids()[rows] = rs.getInt(1);
+                    columns.names()[rows] = rs.getString(2);
+                    bytes += 10 + columns.names()[rows].length() * 3;
+                    if (++rows == blockRows || bytes >= SnapshotFormat.NAMES_BLOCK_BYTES) {
+                        SnapshotFormat.Block.compress(SnapshotFormat.NAMES, rows,
+                                columns.withRows(rows).encode(), deflater).writeTo(channel);
+                        total += rows;
+                        rows = 0;
+                        bytes = 0;
+                    }
+                }
+            }
+        }
+        if (rows > 0) {
+            SnapshotFormat.Block.compress(SnapshotFormat.NAMES, rows,
+                    columns.withRows(rows).encode(), deflater).writeTo(channel);
+            total += rows;
+        }
+        return total;
+    }
+}
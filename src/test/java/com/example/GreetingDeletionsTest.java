@@ -0,0 +1,55 @@
+package com.example;
+
+import com.example.entity.Greeting;
+import com.example.repository.GreetingRepository;
+import com.example.repository.GreetingTypedSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the transactional bulk deletes
+ */
+class GreetingDeletionsTest {
+
+    @Mock
+    private GreetingRepository greetingRepository;
+
+    @InjectMocks
+    private GreetingDeletions greetingDeletions;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testDeleteByNameDeletesExactlyTheGreetingsItRead() {
+        // Given
+        String name = "John";
+        LocalDateTime now = LocalDateTime.now();
+        List<GreetingTypedSummary> summaries = List.of(
+            new GreetingTypedSummary(1L, name, Greeting.GreetingType.CASUAL, now),
+            new GreetingTypedSummary(2L, name, Greeting.GreetingType.FORMAL, now)
+        );
+        when(greetingRepository.findTypedSummariesByName(name)).thenReturn(summaries);
+
+        // When
+        List<GreetingTypedSummary> deleted = greetingDeletions.deleteByName(name);
+
+        // Then
+        assertEquals(summaries, deleted);
+        verify(greetingRepository).deleteById(1L);
+        verify(greetingRepository).deleteById(2L);
+        verify(greetingRepository, never()).deleteByName(anyString());
+        verify(greetingRepository, never()).findByName(anyString());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example;
+
+import com.example.entity.Greeting;
+import com.example.repository.GreetingSummary;
+import com.example.repository.GreetingTypedSummary;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for sparse fieldset parsing and projection selection
+ */
+class GreetingFieldsTest {
+
+    @Test
+    void testMissingFieldsSelectsFullEntity() {
+        assertEquals(GreetingFields.Projection.FULL, GreetingFields.parse(null).projection());
+        assertEquals(GreetingFields.Projection.FULL, GreetingFields.parse("  ").projection());
+    }
+
+    @Test
+    void testNarrowestProjectionIsSelected() {
+        assertEquals(GreetingFields.Projection.SUMMARY, GreetingFields.parse("id,name").projection());
+        assertEquals(GreetingFields.Projection.SUMMARY, GreetingFields.parse("id, name, createdAt").projection());
+        assertEquals(GreetingFields.Projection.TYPED_SUMMARY, GreetingFields.parse("name,greetingType").projection());
+        assertEquals(GreetingFields.Projection.TYPED_SUMMARY, GreetingFields.parse("id,message").projection());
+    }
+
+    @Test
+    void testUnknownFieldIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> GreetingFields.parse("id,password"));
+    }
+
+    @Test
+    void testRenderKeepsOnlyRequestedFieldsInOrder() {
+        // Given
+        GreetingFields fields = GreetingFields.parse("name,id");
+        GreetingSummary summary = new GreetingSummary(7L, "John", LocalDateTime.now());
+
+        // When
+        List<Map<String, Object>> rendered = fields.render(List.of(summary));
+
+        // Then
+        assertEquals(1, rendered.size());
+        assertEquals(List.of("name", "id"), List.copyOf(rendered.get(0).keySet()));
+        assertEquals("John", rendered.get(0).get("name"));
+        assertEquals(7L, rendered.get(0).get("id"));
+    }
+
+    @Test
+    void testRenderFromFullEntity() {
+        // Given
+        GreetingFields fields = GreetingFields.parse("message");
+        Greeting greeting = new Greeting("Jane", Greeting.GreetingType.FORMAL);
+
+        // When
+        List<Map<String, Object>> rendered = fields.render(List.of(greeting));
+
+        // Then
+        assertEquals(Map.of("message", "Good day, Jane!"), rendered.get(0));
+    }
+
+    @Test
+    void testRenderDerivesMessageFromTypedSummary() {
+        // Given
+        GreetingFields fields = GreetingFields.parse("id,message");
+        GreetingTypedSummary summary = new GreetingTypedSummary(3L, "Jane", Greeting.GreetingType.CASUAL, LocalDateTime.now());
+
+        // When
+        List<Map<String, Object>> rendered = fields.render(List.of(summary));
+
+        // Then
+        assertEquals("Hello, Jane!", rendered.get(0).get("message"));
+        assertEquals(3L, rendered.get(0).get("id"));
+    }
+}
@@ -1,13 +1,22 @@
 package com.example;
 
 import com.example.entity.Greeting;
+import com.example.event.GreetingEvent;
+import com.example.repository.GreetingReadRepository;
 import com.example.repository.GreetingRepository;
+import com.example.repository.GreetingSummary;
+import com.example.repository.GreetingTypedSummary;
+import com.example.repository.GreetingWriteGate;
+import com.example.repository.WritesSuspendedException;
+import jakarta.enterprise.event.Event;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.logging.Logger;
@@ -15,6 +24,7 @@ import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 /**
@@ -28,6 +38,21 @@ class HelloServiceTest {
     @Mock
     private GreetingRepository greetingRepository;
 
+    @Mock
+    private GreetingReadRepository greetingReadRepository;
+
+    @Mock
+    private ReadReplicaPolicy readReplicaPolicy;
+
+    @Mock
+    private Event<GreetingEvent> greetingEvents;
+
+    @Mock
+    private GreetingWriteGate writeGate;
+
+    @Mock
+    private GreetingDeletions greetingDeletions;
+
     @InjectMocks
     private HelloService helloService;
 
@@ -40,7 +65,7 @@ class HelloServiceTest {
     void testCreateGreeting() {
         // Given
         String name = "John";
-        Greeting savedGreeting = new Greeting(name, "Hello, John!", Greeting.GreetingType.CASUAL);
+        Greeting savedGreeting = new Greeting(name, Greeting.GreetingType.CASUAL);
         when(greetingRepository.save(any(Greeting.class))).thenReturn(savedGreeting);
 
         // When
@@ -55,7 +80,7 @@ class HelloServiceTest {
     @Test
     void testCreateGreetingWithNullName() {
         // Given
-        Greeting savedGreeting = new Greeting("Anonymous", "Hello, Anonymous!", Greeting.GreetingType.CASUAL);
+        Greeting savedGreeting = new Greeting("Anonymous", Greeting.GreetingType.CASUAL);
         when(greetingRepository.save(any(Greeting.class))).thenReturn(savedGreeting);
 
         // When
@@ -69,7 +94,7 @@ class HelloServiceTest {
     @Test
     void testCreateGreetingWithEmptyName() {
         // Given
-        Greeting savedGreeting = new Greeting("Anonymous", "Hello, Anonymous!", Greeting.GreetingType.CASUAL);
+        Greeting savedGreeting = new Greeting("Anonymous", Greeting.GreetingType.CASUAL);
         when(greetingRepository.save(any(Greeting.class))).thenReturn(savedGreeting);
 
         // When
@@ -84,7 +109,7 @@ class HelloServiceTest {
     void testCreateFormalGreeting() {
         // Given
         String name = "Jane";
-        Greeting savedGreeting = new Greeting(name, "Good day, Jane!", Greeting.GreetingType.FORMAL);
+        Greeting savedGreeting = new Greeting(name, Greeting.GreetingType.FORMAL);
         when(greetingRepository.save(any(Greeting.class))).thenReturn(savedGreeting);
 
         // When
@@ -96,12 +121,29 @@ class HelloServiceTest {
         verify(logger, times(2)).info(anyString());
     }
 
+    @Test
+    void testCreateGreetingFiresCreatedEvent() {
+        // Given
+        Greeting savedGreeting = new Greeting("John", Greeting.GreetingType.CASUAL);
+        savedGreeting.setId(42L);
+        when(greetingRepository.save(any(Greeting.class))).thenReturn(savedGreeting);
+
+        // When
+        helloService.createGreeting("John");
+
+        // Then
+        verify(greetingEvents, times(1)).fire(argThat(event ->
+            event.kind() == GreetingEvent.Kind.CREATED
+                && event.id() == 42L
+                && "John".equals(event.name())));
+    }
+
     @Test
     void testGetAllGreetings() {
         // Given
         List<Greeting> greetings = Arrays.asList(
-            new Greeting("John", "Hello, John!", Greeting.GreetingType.CASUAL),
-            new Greeting("Jane", "Good day, Jane!", Greeting.GreetingType.FORMAL)
+            new Greeting("John", Greeting.GreetingType.CASUAL),
+            new Greeting("Jane", Greeting.GreetingType.FORMAL)
         );
         when(greetingRepository.findAll()).thenReturn(greetings.stream());
 
@@ -120,8 +162,8 @@ class HelloServiceTest {
         // Given
         String name = "John";
         List<Greeting> greetings = Arrays.asList(
-            new Greeting(name, "Hello, John!", Greeting.GreetingType.CASUAL),
-            new Greeting(name, "Good day, John!", Greeting.GreetingType.FORMAL)
+            new Greeting(name, Greeting.GreetingType.CASUAL),
+            new Greeting(name, Greeting.GreetingType.FORMAL)
         );
         when(greetingRepository.findByName(name)).thenReturn(greetings);
 
@@ -139,20 +181,15 @@ class HelloServiceTest {
     void testGetGreetingStats() {
         // Given
         long totalCount = 5L;
-        when(greetingRepository.findAll()).thenReturn(Stream.of(
-            new Greeting("Test1", "Hello, Test1!", Greeting.GreetingType.CASUAL),
-            new Greeting("Test2", "Hello, Test2!", Greeting.GreetingType.CASUAL),
-            new Greeting("Test3", "Hello, Test3!", Greeting.GreetingType.FORMAL),
-            new Greeting("Test4", "Hello, Test4!", Greeting.GreetingType.FORMAL),
-            new Greeting("Test5", "Hello, Test5!", Greeting.GreetingType.CASUAL)
-        ));
+        when(greetingRepository.countAll()).thenReturn(totalCount);
 
         // When
         HelloService.GreetingStats result = helloService.getGreetingStats();
 
         // Then
         assertEquals(totalCount, result.getTotalGreetings());
-        verify(greetingRepository, times(1)).findAll();
+        verify(greetingRepository, times(1)).countAll();
+        verify(greetingRepository, never()).findAll();
     }
 
     @Test
@@ -169,4 +206,186 @@ class HelloServiceTest {
         assertEquals(count, result);
         verify(greetingRepository, times(1)).countByName(name);
     }
+
+    @Test
+    void testGetAllGreetingSummaries() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        when(greetingRepository.findAllSummaries()).thenReturn(List.of(
+            new GreetingSummary(1L, "John", now),
+            new GreetingSummary(2L, "Jane", now)
+        ));
+
+        // When
+        List<GreetingSummary> result = helloService.getAllGreetingSummaries();
+
+        // Then
+        assertEquals(2, result.size());
+        assertEquals("John", result.get(0).name());
+        verify(greetingRepository, times(1)).findAllSummaries();
+        verify(greetingRepository, never()).findAll();
+    }
+
+    @Test
+    void testGetTypedGreetingSummariesByName() {
+        // Given
+        String name = "John";
+        when(greetingRepository.findTypedSummariesByName(name)).thenReturn(List.of(
+            new GreetingTypedSummary(1L, name, Greeting.GreetingType.FORMAL, LocalDateTime.now())
+        ));
+
+        // When
+        List<GreetingTypedSummary> result = helloService.getTypedGreetingSummariesByName(name);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(Greeting.GreetingType.FORMAL, result.get(0).greetingType());
+        verify(greetingRepository, times(1)).findTypedSummariesByName(name);
+        verify(greetingRepository, never()).findByName(name);
+    }
+
+    @Test
+    void testReadsUseReplicaWhenPolicyAllows() {
+        // Given
+        String name = "John";
+        when(readReplicaPolicy.useReplica()).thenReturn(true);
+        when(greetingReadRepository.findByName(name)).thenReturn(List.of(
+            new Greeting(name, Greeting.GreetingType.CASUAL)
+        ));
+        when(greetingReadRepository.findAll()).thenReturn(Stream.of(
+            new Greeting(name, Greeting.GreetingType.CASUAL)
+        ));
+        when(greetingReadRepository.countAll()).thenReturn(1L);
+
+        // When
+        List<Greeting> byName = helloService.getGreetingsByName(name);
+        List<Greeting> all = helloService.getAllGreetings();
+        HelloService.GreetingStats stats = helloService.getGreetingStats();
+
+        // Then
+        assertEquals(1, byName.size());
+        assertEquals(1, all.size());
+        assertEquals(1L, stats.getTotalGreetings());
+        verify(greetingRepository, never()).findByName(anyString());
+        verify(greetingRepository, never()).findAll();
+        verify(greetingRepository, never()).countAll();
+    }
+
+    @Test
+    void testReadsStayOnPrimaryAfterRecentWrite() {
+        // Given
+        when(readReplicaPolicy.useReplica()).thenReturn(false);
+        when(greetingRepository.countByName("John")).thenReturn(2L);
+
+        // When
+        long count = helloService.getGreetingCountByName("John");
+
+        // Then
+        assertEquals(2L, count);
+        verify(greetingReadRepository, never()).countByName(anyString());
+    }
+
+    @Test
+    void testWritesAreRecordedForReadYourWrites() {
+        // Given
+        Greeting savedGreeting = new Greeting("John", Greeting.GreetingType.CASUAL);
+        when(greetingRepository.save(any(Greeting.class))).thenReturn(savedGreeting);
+
+        // When
+        helloService.createGreeting("John");
+        helloService.deleteGreetingsByName("John");
+
+        // Then
+        verify(readReplicaPolicy, times(2)).recordWrite();
+    }
+
+    @Test
+    void testDeleteGreetingsByNameFiresDeletedEventPerGreeting() {
+        // Given
+        String name = "John";
+        LocalDateTime now = LocalDateTime.now();
+        when(greetingDeletions.deleteByName(name)).thenReturn(List.of(
+            new GreetingTypedSummary(1L, name, Greeting.GreetingType.CASUAL, now),
+            new GreetingTypedSummary(2L, name, Greeting.GreetingType.FORMAL, now)
+        ));
+
+        // When
+        helloService.deleteGreetingsByName(name);
+
+        // Then
+        verify(greetingDeletions).deleteByName(name);
+        verify(greetingRepository, never()).deleteByName(anyString());
+        verify(greetingEvents).fire(argThat(event -> event.kind() == GreetingEvent.Kind.DELETED
+            && Long.valueOf(2L).equals(event.id()) && "Good day, John!".equals(event.message())));
+        verify(greetingEvents, times(2)).fire(argThat(event ->
+            event.kind() == GreetingEvent.Kind.DELETED && name.equals(event.name())));
+    }
+
+    @Test
+    void testDeleteGreetingsByNameHoldsWriteGateUntilEventsFire() {
+        // Given
+        String name = "John";
+        when(greetingDeletions.deleteByName(name)).thenReturn(List.of(
+            new GreetingTypedSummary(1L, name, Greeting.GreetingType.CASUAL, LocalDateTime.now())
+        ));
+
+        // When
+        helloService.deleteGreetingsByName(name);
+
+        // Then
+        InOrder inOrder = inOrder(writeGate, greetingDeletions, greetingEvents);
+        inOrder.verify(writeGate).enter();
+        inOrder.verify(greetingDeletions).deleteByName(name);
+        inOrder.verify(greetingEvents).fire(any(GreetingEvent.class));
+        inOrder.verify(writeGate).exit();
+    }
+
+    @Test
+    void testCreateGreetingHoldsWriteGateUntilEventFires() {
+        // Given
+        Greeting savedGreeting = new Greeting("John", Greeting.GreetingType.FORMAL);
+        when(greetingRepository.save(any(Greeting.class))).thenReturn(savedGreeting);
+
+        // When
+        helloService.createGreeting("John");
+        helloService.createFormalGreeting("John");
+
+        // Then
+        InOrder inOrder = inOrder(writeGate, greetingRepository, greetingEvents);
+        for (int i = 0; i < 2; i++) {
+            inOrder.verify(writeGate).enter();
+            inOrder.verify(greetingRepository).save(any(Greeting.class));
+            inOrder.verify(greetingEvents).fire(any(GreetingEvent.class));
+            inOrder.verify(writeGate).exit();
+        }
+    }
+
+    @Test
+    void testWriteGateIsReleasedWhenDeleteFails() {
+        // Given
+        when(greetingDeletions.deleteByName("John")).thenThrow(new IllegalStateException("Rolled back"));
+
+        // When
+        assertThrows(IllegalStateException.class, () -> helloService.deleteGreetingsByName("John"));
+
+        // Then
+        verify(writeGate).exit();
+        verify(greetingEvents, never()).fire(any(GreetingEvent.class));
+    }
+
+    @Test
+    void testWritesAreRejectedWhileSuspended() {
+        // Given
+        doThrow(new WritesSuspendedException("Greetings are being restored from a snapshot")).when(writeGate).enter();
+
+        // When
+        assertThrows(WritesSuspendedException.class, () -> helloService.createGreeting("John"));
+        assertThrows(WritesSuspendedException.class, () -> helloService.deleteGreeting(1L));
+
+        // Then
+        verify(greetingRepository, never()).save(any(Greeting.class));
+        verify(greetingRepository, never()).deleteById(any());
+        verify(writeGate, never()).exit();
+        verifyNoInteractions(greetingEvents);
+    }
 }
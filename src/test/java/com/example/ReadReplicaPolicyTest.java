@@ -0,0 +1,108 @@
+package com.example;
+
+import jakarta.enterprise.context.ContextNotActiveException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for replica read routing
+ */
+class ReadReplicaPolicyTest {
+
+    @Mock
+    private WriteRecency writeRecency;
+
+    @InjectMocks
+    private ReadReplicaPolicy readReplicaPolicy;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testDisabledPolicyNeverTouchesSession() {
+        // When
+        readReplicaPolicy.recordWrite();
+        boolean useReplica = readReplicaPolicy.useReplica();
+
+        // Then
+        assertFalse(useReplica);
+        verifyNoInteractions(writeRecency);
+    }
+
+    private void enable(long stalenessBoundMillis) throws Exception {
+        set("enabled", true);
+        set("stalenessBoundMillis", stalenessBoundMillis);
+    }
+
+    private void set(String name, Object value) throws Exception {
+        Field field = ReadReplicaPolicy.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(readReplicaPolicy, value);
+    }
+
+    @Test
+    void testRecentWriteKeepsReadsOnPrimary() throws Exception {
+        // Given
+        enable(5_000);
+        when(writeRecency.getLastWriteMillis()).thenReturn(System.currentTimeMillis() - 100);
+
+        // When
+        readReplicaPolicy.recordWrite();
+        boolean useReplica = readReplicaPolicy.useReplica();
+
+        // Then
+        assertFalse(useReplica);
+        verify(writeRecency).markWrite();
+    }
+
+    @Test
+    void testWriteOlderThanStalenessBoundAllowsReplica() throws Exception {
+        // Given
+        enable(5_000);
+        when(writeRecency.getLastWriteMillis()).thenReturn(System.currentTimeMillis() - 6_000);
+
+        // When
+        boolean useReplica = readReplicaPolicy.useReplica();
+
+        // Then
+        assertTrue(useReplica);
+    }
+
+    @Test
+    void testSessionWithoutWritesUsesReplica() throws Exception {
+        // Given
+        enable(5_000);
+        when(writeRecency.getLastWriteMillis()).thenReturn(0L);
+
+        // When
+        boolean useReplica = readReplicaPolicy.useReplica();
+
+        // Then
+        assertTrue(useReplica);
+    }
+
+    @Test
+    void testNoActiveSessionUsesReplica() throws Exception {
+        // Given
+        enable(5_000);
+        when(writeRecency.getLastWriteMillis()).thenThrow(new ContextNotActiveException("No session"));
+        doThrow(new ContextNotActiveException("No session")).when(writeRecency).markWrite();
+
+        // When
+        assertDoesNotThrow(() -> readReplicaPolicy.recordWrite());
+        boolean useReplica = readReplicaPolicy.useReplica();
+
+        // Then
+        assertTrue(useReplica);
+    }
+}
@@ -0,0 +1,150 @@
+package com.example;
+
+import com.example.repository.GreetingReadRepository;
+import com.example.repository.GreetingRepository;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.enterprise.event.Startup;
+import jakarta.json.bind.Jsonb;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the warm-up readiness states that drive the health endpoint
+ */
+class StartupWarmupTest {
+
+    private static final long RETRY_DELAY_MILLIS = 20;
+
+    @Mock
+    private Logger logger;
+
+    @Mock
+    private GreetingRepository greetingRepository;
+
+    @Mock
+    private GreetingReadRepository greetingReadRepository;
+
+    @Mock
+    private ReadReplicaPolicy readReplicaPolicy;
+
+    @Mock
+    private JsonbResolver jsonbResolver;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private EntityManager replicaEntityManager;
+
+    @Mock
+    private ManagedExecutorService executor;
+
+    @InjectMocks
+    private StartupWarmup startupWarmup;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        set("enabled", true);
+        set("iterations", 2);
+        set("poolConnections", 2);
+        set("fullListingMaxRows", 10_000L);
+        set("maxAttempts", 3);
+        set("retryDelayMillis", RETRY_DELAY_MILLIS);
+
+        Query query = mock(Query.class);
+        when(query.setMaxResults(anyInt())).thenReturn(query);
+        when(query.getResultList()).thenReturn(List.of());
+        when(entityManager.createQuery(anyString())).thenReturn(query);
+        when(jsonbResolver.getContext(any())).thenReturn(mock(Jsonb.class));
+        // Run pool priming inline
+        when(executor.submit(any(Callable.class))).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(((Callable<?>) invocation.getArgument(0)).call()));
+    }
+
+    private void set(String name, Object value) throws Exception {
+        Field field = StartupWarmup.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(startupWarmup, value);
+    }
+
+    @Test
+    void testStartingUntilWarmupSucceeds() {
+        // Given
+        assertFalse(startupWarmup.isReady());
+        assertFalse(startupWarmup.isFailed());
+
+        // When
+        startupWarmup.warmUp();
+
+        // Then
+        assertTrue(startupWarmup.isReady());
+        assertFalse(startupWarmup.isFailed());
+        verify(jsonbResolver).getContext(any());
+        verifyNoInteractions(greetingReadRepository, replicaEntityManager);
+    }
+
+    @Test
+    void testRetriesWithBackoffThenSucceeds() {
+        // Given
+        when(greetingRepository.countAll())
+                .thenThrow(new IllegalStateException("Database unavailable"))
+                .thenThrow(new IllegalStateException("Database unavailable"))
+                .thenReturn(0L);
+        long started = System.currentTimeMillis();
+
+        // When
+        startupWarmup.warmUp();
+
+        // Then the delays grow with the attempt number: 1x then 2x
+        assertTrue(System.currentTimeMillis() - started >= 3 * RETRY_DELAY_MILLIS);
+        assertTrue(startupWarmup.isReady());
+        assertFalse(startupWarmup.isFailed());
+        verify(logger, times(2)).warning(anyString());
+    }
+
+    @Test
+    void testDownAfterMaxAttempts() {
+        // Given
+        when(greetingRepository.countAll()).thenThrow(new IllegalStateException("Database unavailable"));
+
+        // When
+        startupWarmup.warmUp();
+
+        // Then
+        assertFalse(startupWarmup.isReady());
+        assertTrue(startupWarmup.isFailed());
+        verify(logger, times(3)).warning(anyString());
+        verify(logger).severe(anyString());
+    }
+
+    @Test
+    void testDisabledWarmupIsReadyImmediately() throws Exception {
+        // Given
+        set("enabled", false);
+
+        // When
+        startupWarmup.onStartup(mock(Startup.class));
+
+        // Then
+        assertTrue(startupWarmup.isReady());
+        verifyNoInteractions(executor, greetingRepository);
+    }
+}
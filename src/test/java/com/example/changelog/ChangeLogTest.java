@@ -0,0 +1,191 @@
+package com.example.changelog;
+
+import com.example.entity.Greeting;
+import com.example.event.GreetingEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the memory-mapped greeting change log
+ */
+class ChangeLogTest {
+
+    private static final int SEGMENT_BYTES = 128;
+
+    @TempDir
+    Path directory;
+
+    private static GreetingEvent event(GreetingEvent.Kind kind, long id) {
+        return new GreetingEvent(kind, id, "Name" + id, Greeting.GreetingType.FORMAL,
+                "Good day, Name" + id + "!", LocalDateTime.of(2024, 5, 1, 12, 30, 15, 250_000_000));
+    }
+
+    private ChangeLog open(int retainedSegments) throws Exception {
+        ChangeLog log = new ChangeLog(directory, SEGMENT_BYTES, retainedSegments, false);
+        log.open();
+        return log;
+    }
+
+    @Test
+    void testAppendedRecordsReadBackInOrder() throws Exception {
+        // Given
+        ChangeLog log = open(4);
+        long first = log.append(event(GreetingEvent.Kind.CREATED, 1));
+        long second = log.append(event(GreetingEvent.Kind.DELETED, 1));
+
+        // When
+        List<ChangeRecord> records = log.read(first, log.endOffset());
+
+        // Then
+        assertEquals(2, records.size());
+        assertEquals(first, records.get(0).offset());
+        assertEquals(second, records.get(1).offset());
+        assertEquals(GreetingEvent.Kind.CREATED, records.get(0).kind());
+        assertEquals(GreetingEvent.Kind.DELETED, records.get(1).kind());
+        assertEquals("Name1", records.get(1).name());
+        assertEquals(Greeting.GreetingType.FORMAL, records.get(1).greetingType());
+        assertEquals(LocalDateTime.of(2024, 5, 1, 12, 30, 15, 250_000_000), records.get(1).createdAt());
+        log.close();
+    }
+
+    @Test
+    void testTransferSpansSegmentsWithContiguousOffsets() throws Exception {
+        // Given
+        ChangeLog log = open(8);
+        for (long id = 1; id <= 10; id++) {
+            log.append(event(GreetingEvent.Kind.CREATED, id));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long written = log.transferTo(0, log.endOffset(), Channels.newChannel(out));
+
+        // Then
+        assertTrue(log.segmentCount() > 1);
+        assertEquals(log.endOffset(), written);
+        ByteBuffer bytes = ByteBuffer.wrap(out.toByteArray());
+        for (long id = 1; id <= 10; id++) {
+            assertEquals(id, ChangeRecord.decode(bytes.position(), bytes).greetingId());
+        }
+        assertFalse(bytes.hasRemaining());
+        log.close();
+    }
+
+    @Test
+    void testBoundaryNeverSplitsRecords() throws Exception {
+        // Given
+        ChangeLog log = open(4);
+        long first = log.append(event(GreetingEvent.Kind.CREATED, 1));
+        long second = log.append(event(GreetingEvent.Kind.CREATED, 2));
+        log.append(event(GreetingEvent.Kind.CREATED, 3));
+        int recordSize = (int) (second - first);
+
+        // When
+        long tooSmall = log.boundaryWithin(first, 1);
+        long oneAndAHalf = log.boundaryWithin(first, recordSize + recordSize / 2);
+        long everything = log.boundaryWithin(first, Long.MAX_VALUE);
+
+        // Then
+        assertEquals(second, tooSmall);
+        assertEquals(second, oneAndAHalf);
+        assertEquals(log.endOffset(), everything);
+        log.close();
+    }
+
+    @Test
+    void testRetentionDeletesOldestSegments() throws Exception {
+        // Given
+        ChangeLog log = open(2);
+
+        // When
+        for (long id = 1; id <= 20; id++) {
+            log.append(event(GreetingEvent.Kind.CREATED, id));
+        }
+
+        // Then
+        assertEquals(2, log.segmentCount());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+        assertTrue(log.startOffset() > 0);
+        assertThrows(IllegalArgumentException.class, () -> log.read(0, log.endOffset()));
+        assertEquals(20L, log.read(log.startOffset(), log.endOffset()).getLast().greetingId());
+        log.close();
+    }
+
+    @Test
+    void testReopenTruncatesTornRecord() throws Exception {
+        // Given
+        ChangeLog log = open(4);
+        log.append(event(GreetingEvent.Kind.CREATED, 1));
+        long torn = log.append(event(GreetingEvent.Kind.CREATED, 2));
+        log.close();
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve(String.format("%020d.log", 0)).toFile(), "rw")) {
+            file.seek(torn + 12);
+            file.write(0x7f);
+        }
+
+        // When
+        ChangeLog reopened = open(4);
+        long next = reopened.append(event(GreetingEvent.Kind.CREATED, 3));
+
+        // Then
+        assertEquals(torn, next);
+        List<ChangeRecord> records = reopened.read(0, reopened.endOffset());
+        assertEquals(2, records.size());
+        assertEquals(1L, records.get(0).greetingId());
+        assertEquals(3L, records.get(1).greetingId());
+        reopened.close();
+    }
+
+    private static void assertOnlyBoundariesAccepted(ChangeLog log, Set<Long> boundaries) throws Exception {
+        for (long offset = log.startOffset(); offset <= log.endOffset(); offset++) {
+            long from = offset;
+            if (boundaries.contains(from)) {
+                assertDoesNotThrow(() -> log.boundaryWithin(from, 64), "offset " + from);
+            } else {
+                assertThrows(IllegalArgumentException.class, () -> log.boundaryWithin(from, 64), "offset " + from);
+                assertThrows(IllegalArgumentException.class, () -> log.read(from, log.endOffset()));
+                assertThrows(IllegalArgumentException.class,
+                        () -> log.transferTo(from, log.endOffset(), Channels.newChannel(new ByteArrayOutputStream())));
+            }
+        }
+    }
+
+    @Test
+    void testMisalignedOffsetsAreRejected() throws Exception {
+        // Given
+        ChangeLog log = new ChangeLog(directory, 3 * ChangeLog.INDEX_INTERVAL, 8, false);
+        log.open();
+        Set<Long> boundaries = new HashSet<>();
+        for (long id = 1; id <= 1000; id++) {
+            boundaries.add(log.append(event(GreetingEvent.Kind.CREATED, id)));
+        }
+        boundaries.add(log.endOffset());
+
+        // When / Then: segments indexed while appending
+        assertTrue(log.segmentCount() > 1);
+        assertOnlyBoundariesAccepted(log, boundaries);
+        log.close();
+
+        // When / Then: sealed segments indexed on first read, active segment indexed by recovery
+        ChangeLog reopened = new ChangeLog(directory, 3 * ChangeLog.INDEX_INTERVAL, 8, false);
+        reopened.open();
+        assertOnlyBoundariesAccepted(reopened, boundaries);
+        reopened.close();
+    }
+}
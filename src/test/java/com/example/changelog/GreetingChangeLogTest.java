@@ -0,0 +1,54 @@
+package com.example.changelog;
+
+import com.example.entity.Greeting;
+import com.example.event.GreetingEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for appending committed greeting changes to the change log
+ */
+class GreetingChangeLogTest {
+
+    @Mock
+    private Logger logger;
+
+    @Mock
+    private ChangeLog changeLog;
+
+    @InjectMocks
+    private GreetingChangeLog greetingChangeLog;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testFailedAppendDoesNotFailTheCommittedWrite() {
+        // Given
+        GreetingEvent event = new GreetingEvent(GreetingEvent.Kind.CREATED, 1L, "John", Greeting.GreetingType.CASUAL,
+                "Hello, John!", LocalDateTime.now());
+        when(changeLog.append(any())).thenThrow(new UncheckedIOException(new IOException("No space left on device")));
+
+        // When
+        assertDoesNotThrow(() -> greetingChangeLog.onGreetingEvent(event));
+
+        // Then
+        assertEquals(1, greetingChangeLog.failedAppends());
+        verify(logger).severe(anyString());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.feed;
+
+import com.example.entity.Greeting;
+import com.example.event.GreetingEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the SSE replay ring buffer
+ */
+class GreetingEventBufferTest {
+
+    private static GreetingEvent event(long id) {
+        return new GreetingEvent(GreetingEvent.Kind.CREATED, id, "Name" + id, Greeting.GreetingType.CASUAL,
+                "Hello, Name" + id + "!", LocalDateTime.now());
+    }
+
+    @Test
+    void testSinceReturnsEventsAfterSequence() {
+        // Given
+        GreetingEventBuffer buffer = new GreetingEventBuffer(8);
+        for (long i = 1; i <= 5; i++) {
+            buffer.append(event(i));
+        }
+
+        // When
+        List<GreetingEventBuffer.Entry> result = buffer.since(3);
+
+        // Then
+        assertEquals(2, result.size());
+        assertEquals(4, result.get(0).sequence());
+        assertEquals(5, result.get(1).sequence());
+        assertEquals(5L, result.get(1).event().id());
+    }
+
+    @Test
+    void testOldestEventsAreOverwrittenWhenFull() {
+        // Given
+        GreetingEventBuffer buffer = new GreetingEventBuffer(3);
+        for (long i = 1; i <= 10; i++) {
+            buffer.append(event(i));
+        }
+
+        // When
+        List<GreetingEventBuffer.Entry> result = buffer.since(1);
+
+        // Then
+        assertEquals(8, buffer.oldestSequence());
+        assertEquals(10, buffer.latestSequence());
+        assertEquals(List.of(8L, 9L, 10L), result.stream().map(GreetingEventBuffer.Entry::sequence).toList());
+    }
+
+    @Test
+    void testCaughtUpClientGetsNothing() {
+        GreetingEventBuffer buffer = new GreetingEventBuffer(4);
+        buffer.append(event(1));
+        buffer.append(event(2));
+
+        assertTrue(buffer.since(2).isEmpty());
+    }
+
+    @Test
+    void testSequenceAheadOfBufferReplaysEverything() {
+        // Given a Last-Event-ID from before a restart
+        GreetingEventBuffer buffer = new GreetingEventBuffer(4);
+        buffer.append(event(1));
+        buffer.append(event(2));
+
+        // When
+        List<GreetingEventBuffer.Entry> result = buffer.since(500);
+
+        // Then
+        assertEquals(2, result.size());
+        assertEquals(1, result.get(0).sequence());
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.feed;
+
+import com.example.entity.Greeting;
+import com.example.event.GreetingEvent;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SSE delivery, filtering and slow client handling
+ */
+class GreetingFeedTest {
+
+    private static final int CLIENT_BUFFER_SIZE = 4;
+
+    private ExecutorService pool;
+    private GreetingFeed feed;
+    private Sse sse;
+    private OutboundSseEvent.Builder builder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pool = Executors.newCachedThreadPool();
+        ManagedExecutorService executor = mock(ManagedExecutorService.class);
+        doAnswer(invocation -> {
+            pool.execute(invocation.getArgument(0));
+            return null;
+        }).when(executor).execute(any(Runnable.class));
+
+        builder = mock(OutboundSseEvent.Builder.class, RETURNS_SELF);
+        when(builder.build()).thenReturn(mock(OutboundSseEvent.class));
+        sse = mock(Sse.class);
+        when(sse.newEventBuilder()).thenReturn(builder);
+
+        feed = new GreetingFeed();
+        set(feed, "logger", mock(Logger.class));
+        set(feed, "executor", executor);
+        set(feed, "replayBufferSize", 16);
+        set(feed, "clientBufferSize", CLIENT_BUFFER_SIZE);
+        feed.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private static void set(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    private static GreetingEvent event(long id, String name, Greeting.GreetingType type) {
+        return new GreetingEvent(GreetingEvent.Kind.CREATED, id, name, type, "Hello, " + name + "!", LocalDateTime.now());
+    }
+
+    @Test
+    void testStalledSubscriberIsDroppedWithoutBlockingPublisher() throws Exception {
+        // Given
+        SseEventSink sink = mock(SseEventSink.class);
+        when(sink.send(any())).thenReturn(new CompletableFuture<>());
+        feed.subscribe(sink, sse, null, null, null);
+
+        // When
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (long i = 1; i <= CLIENT_BUFFER_SIZE + 5; i++) {
+                feed.onGreetingEvent(event(i, "John", Greeting.GreetingType.CASUAL));
+            }
+        });
+
+        // Then
+        assertEquals(0, feed.subscriberCount());
+        verify(sink, timeout(1000)).close();
+    }
+
+    @Test
+    void testFailingSendDoesNotReachPublisher() throws Exception {
+        // Given
+        SseEventSink sink = mock(SseEventSink.class);
+        when(sink.send(any())).thenThrow(new IllegalStateException("Sink closed"));
+        feed.subscribe(sink, sse, null, null, null);
+
+        // When
+        assertDoesNotThrow(() -> feed.onGreetingEvent(event(1, "John", Greeting.GreetingType.CASUAL)));
+
+        // Then
+        verify(sink, timeout(1000)).close();
+        assertEquals(0, feed.subscriberCount());
+    }
+
+    @Test
+    void testOnlyMatchingEventsAreDelivered() throws Exception {
+        // Given
+        SseEventSink sink = mock(SseEventSink.class);
+        when(sink.send(any())).thenReturn(CompletableFuture.completedFuture(null));
+        feed.subscribe(sink, sse, null, "Ann", Greeting.GreetingType.FORMAL);
+        GreetingEvent match = event(2, "Ann", Greeting.GreetingType.FORMAL);
+
+        // When
+        feed.onGreetingEvent(event(1, "Bob", Greeting.GreetingType.FORMAL));
+        feed.onGreetingEvent(match);
+        feed.onGreetingEvent(event(3, "Ann", Greeting.GreetingType.CASUAL));
+        feed.onGreetingEvent(new GreetingEvent(GreetingEvent.Kind.DELETED, 2L, "Ann", Greeting.GreetingType.FORMAL,
+                "Good day, Ann!", LocalDateTime.now()));
+
+        // Then
+        verify(sink, timeout(1000)).send(any());
+        verify(builder).data(eq(GreetingEvent.class), eq(match));
+        verify(builder).id("2");
+        verify(sink, never()).close();
+        assertEquals(1, feed.subscriberCount());
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.repository;
+
+import com.example.entity.Greeting;
+import jakarta.data.repository.Query;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the repository's name queries against H2 through the RESOURCE_LOCAL {@code test} unit, where
+ * the name converter and listener get no CDI injection and use the standalone dictionary.
+ *
+ * {@code @Query} methods run their own JPQL; derived methods run the JPQL Jakarta Data derives for them.
+ */
+class GreetingQueriesTest {
+
+    private static EntityManagerFactory entityManagerFactory;
+    private static NameDictionary nameDictionary;
+
+    private EntityManager em;
+
+    @BeforeAll
+    static void createUnit() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("test");
+        nameDictionary = new NameDictionary(new NameStore(entityManagerFactory));
+        NameDictionary.useStandalone(nameDictionary);
+    }
+
+    @AfterAll
+    static void closeUnit() {
+        NameDictionary.useStandalone(null);
+        entityManagerFactory.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        em = entityManagerFactory.createEntityManager();
+        em.getTransaction().begin();
+        em.createQuery("DELETE FROM Greeting g").executeUpdate();
+        em.createQuery("DELETE FROM GreetingName n").executeUpdate();
+        em.getTransaction().commit();
+        nameDictionary.clear();
+
+        save("Ann", Greeting.GreetingType.CASUAL);
+        save("Ann", Greeting.GreetingType.FORMAL);
+        save("Annabel", Greeting.GreetingType.CASUAL);
+        save("Bob", Greeting.GreetingType.FORMAL);
+        em.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        em.close();
+    }
+
+    private void save(String name, Greeting.GreetingType type) {
+        em.getTransaction().begin();
+        em.persist(new Greeting(name, type));
+        em.getTransaction().commit();
+    }
+
+    private static String jpql(String method) throws NoSuchMethodException {
+        return GreetingQueries.class.getMethod(method, String.class).getAnnotation(Query.class).value();
+    }
+
+    private <T> List<T> run(String method, Class<T> type, String name) throws NoSuchMethodException {
+        return em.createQuery(jpql(method), type).setParameter("name", name).getResultList();
+    }
+
+    @Test
+    void testNamesRoundTripThroughTheDictionary() {
+        // When
+        List<Greeting> all = em.createQuery("SELECT g FROM Greeting g ORDER BY g.id", Greeting.class).getResultList();
+
+        // Then
+        assertEquals(List.of("Ann", "Ann", "Annabel", "Bob"), all.stream().map(Greeting::getName).toList());
+        assertEquals("Good day, Ann!", all.get(1).getMessage());
+        assertEquals(3L, em.createQuery("SELECT COUNT(n) FROM GreetingName n", Long.class).getSingleResult());
+    }
+
+    @Test
+    void testFindCountAndExistsByName() {
+        // When
+        List<Greeting> found = em.createNamedQuery("Greeting.findByName", Greeting.class)
+                .setParameter("name", "Ann").getResultList();
+        long count = em.createNamedQuery("Greeting.countByName", Long.class)
+                .setParameter("name", "Ann").getSingleResult();
+        long unknown = em.createNamedQuery("Greeting.countByName", Long.class)
+                .setParameter("name", "Nobody").getSingleResult();
+        boolean exists = !em.createQuery("SELECT g.id FROM Greeting g WHERE g.name = :name")
+                .setParameter("name", "Bob").setMaxResults(1).getResultList().isEmpty();
+
+        // Then
+        assertEquals(2, found.size());
+        assertTrue(found.stream().allMatch(g -> "Ann".equals(g.getName())));
+        assertEquals(2L, count);
+        assertEquals(0L, unknown);
+        assertTrue(exists);
+    }
+
+    @Test
+    void testDeleteByNameOnlyDeletesThatName() {
+        // When
+        em.getTransaction().begin();
+        int deleted = em.createQuery("DELETE FROM Greeting g WHERE g.name = :name")
+                .setParameter("name", "Ann").executeUpdate();
+        em.getTransaction().commit();
+
+        // Then
+        assertEquals(2, deleted);
+        assertEquals(List.of("Annabel", "Bob"), em.createQuery("SELECT g FROM Greeting g", Greeting.class)
+                .getResultList().stream().map(Greeting::getName).sorted().toList());
+    }
+
+    @Test
+    void testSummaryProjectionsByName() throws Exception {
+        // When
+        List<GreetingSummary> summaries = run("findSummariesByName", GreetingSummary.class, "Ann");
+        List<GreetingTypedSummary> typed = run("findTypedSummariesByName", GreetingTypedSummary.class, "Ann");
+
+        // Then
+        assertEquals(2, summaries.size());
+        assertTrue(summaries.stream().allMatch(s -> "Ann".equals(s.name()) && s.createdAt() != null));
+        assertEquals(List.of("Hello, Ann!", "Good day, Ann!"), typed.stream()
+                .sorted(Comparator.comparing(GreetingTypedSummary::id))
+                .map(GreetingTypedSummary::message).toList());
+    }
+
+    @Test
+    void testAllSummariesAndContainingSearches() throws Exception {
+        // When
+        List<GreetingSummary> all = em.createQuery(GreetingQueries.class.getMethod("findAllSummaries")
+                .getAnnotation(Query.class).value(), GreetingSummary.class).getResultList();
+        List<GreetingTypedSummary> containing = run("findTypedSummariesByNameContaining", GreetingTypedSummary.class, "ANN");
+        List<Greeting> prefixed = em.createQuery(jpql("findByNamePrefix"), Greeting.class)
+                .setParameter("namePrefix", "Anna").getResultList();
+
+        // Then
+        assertEquals(4, all.size());
+        assertEquals(List.of("Ann", "Ann", "Annabel"), containing.stream()
+                .map(GreetingTypedSummary::name).sorted().collect(Collectors.toList()));
+        assertEquals(List.of("Annabel"), prefixed.stream().map(Greeting::getName).toList());
+    }
+}
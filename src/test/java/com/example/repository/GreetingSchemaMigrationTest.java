@@ -0,0 +1,96 @@
+package com.example.repository;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for upgrading a pre-dictionary greetings table, using an H2 in-memory database
+ */
+class GreetingSchemaMigrationTest {
+
+    private JdbcDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:migration-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        execute("CREATE TABLE greetings (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "name VARCHAR(100) NOT NULL, message VARCHAR(255) NOT NULL, greeting_type VARCHAR(50), "
+                + "created_at TIMESTAMP NOT NULL)");
+        execute("INSERT INTO greetings (name, message, greeting_type, created_at) VALUES "
+                + "('John', 'Hello, John!', 'CASUAL', CURRENT_TIMESTAMP), "
+                + "('Jane', 'Good day, Jane!', 'FORMAL', CURRENT_TIMESTAMP), "
+                + "('John', 'Good day, John!', 'FORMAL', CURRENT_TIMESTAMP)");
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private List<String> rows(String query) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(query)) {
+            while (rs.next()) {
+                rows.add(rs.getString(1) + "|" + rs.getString(2));
+            }
+        }
+        return rows;
+    }
+
+    private boolean migrate() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return GreetingSchemaMigration.migrate(connection);
+        }
+    }
+
+    @Test
+    void testOldTableIsConvertedToDictionaryLayout() throws SQLException {
+        // When
+        boolean migrated = migrate();
+
+        // Then
+        assertTrue(migrated);
+        assertEquals(List.of("1|John", "2|Jane", "3|John"),
+                rows("SELECT g.id, n.name FROM greetings g JOIN names n ON n.id = g.name_id ORDER BY g.id"));
+        assertEquals(List.of("1|0", "2|1", "3|1"), rows("SELECT id, greeting_type FROM greetings ORDER BY id"));
+        assertEquals(2, rows("SELECT id, name FROM names").size());
+        assertEquals(List.of("CREATED_AT|TIMESTAMP", "GREETING_TYPE|SMALLINT", "ID|BIGINT", "NAME_ID|INTEGER"),
+                rows("SELECT column_name, data_type FROM information_schema.columns "
+                        + "WHERE table_name = 'GREETINGS' ORDER BY column_name"));
+        assertEquals(1, rows("SELECT index_name, table_name FROM information_schema.indexes "
+                + "WHERE LOWER(index_name) = '" + GreetingSchemaMigration.NAME_INDEX + "'").size());
+    }
+
+    @Test
+    void testMigrationRunsAfterSchemaExtensionAndOnlyOnce() throws SQLException {
+        // Given the tables and column EclipseLink adds with create-or-extend-tables
+        execute("CREATE TABLE names (id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, name VARCHAR(100) NOT NULL UNIQUE)");
+        execute("INSERT INTO names (name) VALUES ('Jane')");
+        execute("ALTER TABLE greetings ADD COLUMN name_id INTEGER");
+
+        // When
+        boolean first = migrate();
+        boolean second = migrate();
+
+        // Then
+        assertTrue(first);
+        assertFalse(second);
+        assertEquals(List.of("1|Jane", "2|John"), rows("SELECT id, name FROM names ORDER BY id"));
+        assertEquals(List.of("1|2", "2|1", "3|2"), rows("SELECT id, name_id FROM greetings ORDER BY id"));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for suspending greeting writes during a restore
+ */
+class GreetingWriteGateTest {
+
+    private static GreetingWriteGate gate(long waitMillis) throws Exception {
+        GreetingWriteGate gate = new GreetingWriteGate();
+        Field field = GreetingWriteGate.class.getDeclaredField("waitMillis");
+        field.setAccessible(true);
+        field.setLong(gate, waitMillis);
+        return gate;
+    }
+
+    @Test
+    void testWritesWaitForSuspensionAndThenGiveUp() throws Exception {
+        // Given
+        GreetingWriteGate gate = gate(50);
+        gate.suspend();
+
+        // When
+        CompletableFuture<Void> write = CompletableFuture.runAsync(gate::enter);
+
+        // Then
+        ExecutionException e = assertThrows(ExecutionException.class, () -> write.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(WritesSuspendedException.class, e.getCause());
+        assertTrue(gate.isSuspended());
+        gate.resume();
+        gate.enter();
+        gate.exit();
+    }
+
+    @Test
+    void testSuspendWaitsForInFlightWrites() throws Exception {
+        // Given
+        GreetingWriteGate gate = gate(50);
+        gate.enter();
+
+        // When
+        CompletableFuture<Void> restore = CompletableFuture.runAsync(gate::suspend);
+
+        // Then
+        Thread.sleep(100);
+        assertFalse(restore.isDone());
+        gate.exit();
+        restore.get(5, TimeUnit.SECONDS);
+        assertTrue(gate.isSuspended());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.repository;
+
+import com.example.entity.GreetingName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Optional;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the in-memory name dictionary cache
+ */
+class NameDictionaryTest {
+
+    @Mock
+    private Logger logger;
+
+    @Mock
+    private NameStore nameStore;
+
+    @InjectMocks
+    private NameDictionary nameDictionary;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private static GreetingName entry(int id, String name) {
+        GreetingName entry = new GreetingName(name);
+        entry.setId(id);
+        return entry;
+    }
+
+    @Test
+    void testRegisterInsertsUnknownNameOnce() {
+        // Given
+        when(nameStore.findByName("John")).thenReturn(Optional.empty());
+        when(nameStore.insert("John")).thenReturn(entry(7, "John"));
+
+        // When
+        int first = nameDictionary.register("John");
+        int second = nameDictionary.register("John");
+
+        // Then
+        assertEquals(7, first);
+        assertEquals(7, second);
+        verify(nameStore, times(1)).insert("John");
+        assertEquals("John", nameDictionary.nameOf(7));
+        verify(nameStore, never()).findById(anyInt());
+    }
+
+    @Test
+    void testRegisterFallsBackToExistingEntryAfterConcurrentInsert() {
+        // Given
+        when(nameStore.findByName("Jane"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(entry(3, "Jane")));
+        when(nameStore.insert("Jane")).thenThrow(new IllegalStateException("unique constraint violated"));
+
+        // When
+        int id = nameDictionary.register("Jane");
+
+        // Then
+        assertEquals(3, id);
+    }
+
+    @Test
+    void testLookupDoesNotCreateEntries() {
+        // Given
+        when(nameStore.findByName("Nobody")).thenReturn(Optional.empty());
+
+        // When
+        Integer id = nameDictionary.idOf("Nobody");
+
+        // Then
+        assertNull(id);
+        verify(nameStore, never()).insert(anyString());
+    }
+
+    @Test
+    void testNameOfLoadsAndCachesMisses() {
+        // Given
+        when(nameStore.findById(5)).thenReturn(Optional.of(entry(5, "Carol")));
+
+        // When
+        String first = nameDictionary.nameOf(5);
+        String second = nameDictionary.nameOf(5);
+
+        // Then
+        assertEquals("Carol", first);
+        assertEquals("Carol", second);
+        verify(nameStore, times(1)).findById(5);
+        assertEquals(5, nameDictionary.idOf("Carol"));
+        verify(nameStore, never()).findByName("Carol");
+    }
+
+    @Test
+    void testUnknownIdIsRejected() {
+        when(nameStore.findById(99)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalStateException.class, () -> nameDictionary.nameOf(99));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.repository.shard;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for consistent hashing of greeting names
+ */
+class ConsistentHashRingTest {
+
+    @Test
+    void testSameNameAlwaysMapsToSameShard() {
+        ConsistentHashRing ring = new ConsistentHashRing(4);
+
+        assertEquals(ring.shardFor("John"), ring.shardFor("John"));
+        assertEquals(ring.shardFor("John"), new ConsistentHashRing(4).shardFor("John"));
+    }
+
+    @Test
+    void testKeysSpreadAcrossShards() {
+        // Given
+        ConsistentHashRing ring = new ConsistentHashRing(4);
+        int[] counts = new int[4];
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            counts[ring.shardFor("name-" + i)]++;
+        }
+
+        // Then every shard gets a reasonable share of the keys
+        for (int count : counts) {
+            assertTrue(count > 1_500 && count < 3_500, "Unbalanced shard with " + count + " keys");
+        }
+    }
+}
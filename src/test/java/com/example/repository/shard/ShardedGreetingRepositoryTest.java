@@ -0,0 +1,220 @@
+package com.example.repository.shard;
+
+import com.example.entity.Greeting;
+import com.example.repository.GreetingSummary;
+import jakarta.data.Order;
+import jakarta.data.Sort;
+import jakarta.data.page.Page;
+import jakarta.data.page.PageRequest;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the sharded repository using several H2 in-memory databases as shards
+ */
+class ShardedGreetingRepositoryTest {
+
+    private static final int SHARDS = 3;
+
+    private ExecutorService executor;
+    private ShardedGreetingRepository repository;
+    private List<DataSource> dataSources;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(SHARDS);
+        String run = UUID.randomUUID().toString();
+        dataSources = new ArrayList<>();
+        for (int i = 0; i < SHARDS; i++) {
+            JdbcDataSource dataSource = new JdbcDataSource();
+            dataSource.setURL("jdbc:h2:mem:shard" + i + "-" + run + ";DB_CLOSE_DELAY=-1");
+            dataSource.setUser("sa");
+            dataSources.add(dataSource);
+        }
+        repository = new ShardedGreetingRepository(dataSources, executor);
+        repository.createSchemaIfMissing();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private Greeting save(String name, Greeting.GreetingType type, LocalDateTime createdAt) {
+        Greeting greeting = new Greeting(name, type);
+        greeting.setCreatedAt(createdAt);
+        return repository.save(greeting);
+    }
+
+    @Test
+    void testIdsAreGloballyUniqueAndRouteBackToTheirShard() {
+        // Given
+        Set<Long> ids = new HashSet<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 30; i++) {
+            ids.add(save("Name" + i, Greeting.GreetingType.CASUAL, now).getId());
+        }
+
+        // Then
+        assertEquals(30, ids.size());
+        for (Long id : ids) {
+            Greeting found = repository.findById(id).orElseThrow();
+            assertEquals(id, found.getId());
+            assertEquals(ShardedGreetingRepository.shardOf(id), repository.shardForName(found.getName()));
+        }
+    }
+
+    @Test
+    void testNameKeyedOperationsStayOnOneShard() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        save("John", Greeting.GreetingType.CASUAL, now);
+        save("John", Greeting.GreetingType.FORMAL, now);
+        save("Jane", Greeting.GreetingType.CASUAL, now);
+
+        // Then
+        assertEquals(2, repository.findByName("John").size());
+        assertEquals(2, repository.countByName("John"));
+        assertTrue(repository.existsByName("Jane"));
+        assertEquals("Hello, Jane!", repository.findByName("Jane").get(0).getMessage());
+        assertFalse(repository.existsByName("Nobody"));
+
+        // When
+        repository.deleteByName("John");
+
+        // Then
+        assertEquals(0, repository.countByName("John"));
+        assertEquals(1, repository.countAll());
+    }
+
+    @Test
+    void testScatterGatherMergesOrderedResults() {
+        // Given
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < 20; i++) {
+            save("Name" + i, Greeting.GreetingType.CASUAL, base.plusMinutes(i));
+        }
+
+        // When
+        List<Greeting> ordered = repository.findAllByOrderByCreatedAtDesc();
+
+        // Then
+        assertEquals(20, ordered.size());
+        for (int i = 0; i < ordered.size(); i++) {
+            assertEquals(base.plusMinutes(19 - i), ordered.get(i).getCreatedAt());
+        }
+        assertEquals(20, repository.findAll().count());
+        assertEquals(20, repository.countAll());
+    }
+
+    @Test
+    void testSearchAndProjectionsSpanAllShards() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        save("Alice", Greeting.GreetingType.CASUAL, now);
+        save("alicia", Greeting.GreetingType.FORMAL, now);
+        save("Bob", Greeting.GreetingType.CASUAL, now);
+        save("Albert", Greeting.GreetingType.CASUAL, now);
+
+        // Then
+        Set<String> matches = repository.findByNameContainingIgnoreCase("ALI").stream()
+                .map(Greeting::getName).collect(Collectors.toSet());
+        assertEquals(Set.of("Alice", "alicia"), matches);
+        assertEquals(2, repository.findByNamePrefix("Al").size());
+        assertEquals(4, repository.findAllSummaries().size());
+        assertEquals(Set.of("Alice", "alicia"), repository.findSummariesByNameContaining("ali").stream()
+                .map(GreetingSummary::name).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void testOffsetPaginationAcrossShards() {
+        // Given
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < 10; i++) {
+            save("Name" + i, Greeting.GreetingType.CASUAL, base.plusMinutes(i));
+        }
+        Order<Greeting> newestFirst = Order.by(Sort.desc("createdAt"));
+
+        // When
+        Page<Greeting> page = repository.findAll(PageRequest.ofPage(2, 4, true), newestFirst);
+
+        // Then
+        assertEquals(4, page.numberOfElements());
+        assertEquals(base.plusMinutes(5), page.content().get(0).getCreatedAt());
+        assertEquals(base.plusMinutes(2), page.content().get(3).getCreatedAt());
+        assertTrue(page.hasNext());
+        assertTrue(page.hasPrevious());
+        assertEquals(10, page.totalElements());
+        assertEquals(3, page.totalPages());
+        assertFalse(repository.findAll(PageRequest.ofPage(3, 4, false), newestFirst).hasNext());
+    }
+
+    @Test
+    void testUpdateAndDeleteById() {
+        // Given
+        Greeting greeting = save("Carol", Greeting.GreetingType.CASUAL, LocalDateTime.now());
+
+        // When
+        greeting.setGreetingType(Greeting.GreetingType.FORMAL);
+        repository.update(greeting);
+
+        // Then
+        assertEquals(Greeting.GreetingType.FORMAL, repository.findById(greeting.getId()).orElseThrow().getGreetingType());
+
+        // When
+        repository.deleteById(greeting.getId());
+
+        // Then
+        assertTrue(repository.findById(greeting.getId()).isEmpty());
+    }
+
+    @Test
+    void testNegativeAndUnknownIdsAreNotFound() {
+        // Given
+        save("Dave", Greeting.GreetingType.CASUAL, LocalDateTime.now());
+
+        // When / Then
+        assertTrue(repository.findById(-1L).isEmpty());
+        assertTrue(repository.findById((long) SHARDS).isEmpty());
+        assertDoesNotThrow(() -> repository.deleteById(-1L));
+        assertEquals(1L, repository.countAll());
+    }
+
+    @Test
+    void testMergeSortedKeepsGlobalOrder() {
+        List<Integer> merged = ShardedGreetingRepository.mergeSorted(
+                List.of(List.of(1, 4, 7), List.of(), List.of(2, 3, 9), List.of(5)), Integer::compare);
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 7, 9), merged);
+    }
+
+    @Test
+    void testChangedShardListIsRejected() {
+        // Given
+        save("Erin", Greeting.GreetingType.CASUAL, LocalDateTime.now());
+        List<DataSource> reordered = List.of(dataSources.get(1), dataSources.get(0), dataSources.get(2));
+        List<DataSource> shrunk = dataSources.subList(0, SHARDS - 1);
+
+        // When / Then
+        assertThrows(IllegalStateException.class,
+                () -> new ShardedGreetingRepository(reordered, executor).createSchemaIfMissing());
+        assertThrows(IllegalStateException.class,
+                () -> new ShardedGreetingRepository(shrunk, executor).createSchemaIfMissing());
+        assertDoesNotThrow(() -> new ShardedGreetingRepository(dataSources, executor).createSchemaIfMissing());
+    }
+}
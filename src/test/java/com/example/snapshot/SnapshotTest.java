@@ -0,0 +1,242 @@
+package com.example.snapshot;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round-trip tests for snapshot dump and restore using H2 in-memory databases
+ */
+class SnapshotTest {
+
+    private static final int THREADS = 3;
+
+    private ExecutorService executor;
+    private DataSource source;
+    private DataSource target;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        executor = Executors.newFixedThreadPool(THREADS);
+        String run = UUID.randomUUID().toString();
+        source = dataSource("source-" + run);
+        target = dataSource("target-" + run);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static DataSource dataSource(String name) throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE names (id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                    + "name VARCHAR(100) NOT NULL UNIQUE)");
+            statement.executeUpdate("CREATE TABLE greetings (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                    + "name_id INTEGER NOT NULL, greeting_type SMALLINT, created_at TIMESTAMP NOT NULL)");
+            statement.executeUpdate("CREATE INDEX " + SnapshotLoader.NAME_INDEX + " ON greetings (name_id)");
+        }
+        return dataSource;
+    }
+
+    private static void populate(DataSource dataSource, int names, int greetings) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO names (name) VALUES (?)")) {
+                for (int i = 0; i < names; i++) {
+                    insert.setString(1, "Näme" + i);
+                    insert.executeUpdate();
+                }
+            }
+            LocalDateTime base = LocalDateTime.of(2024, 1, 1, 9, 0, 0, 123_456_000);
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO greetings (name_id, greeting_type, created_at) VALUES (?, ?, ?)")) {
+                for (int i = 0; i < greetings; i++) {
+                    insert.setInt(1, 1 + i % names);
+                    if (i % 10 == 0) {
+                        insert.setNull(2, Types.SMALLINT);
+                    } else {
+                        insert.setShort(2, (short) (i % 2));
+                    }
+                    insert.setTimestamp(3, Timestamp.valueOf(base.plusSeconds(i * 37L)));
+                    insert.executeUpdate();
+                }
+            }
+        }
+    }
+
+    private static List<String> rows(DataSource dataSource, String query) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(query)) {
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                StringBuilder row = new StringBuilder();
+                for (int i = 1; i <= columns; i++) {
+                    row.append(rs.getObject(i)).append('|');
+                }
+                rows.add(row.toString());
+            }
+        }
+        return rows;
+    }
+
+    private static byte[] dump(DataSource dataSource, int blockRows) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new SnapshotWriter(dataSource, blockRows).write(Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    @Test
+    void testRoundTripReplacesTargetData() throws Exception {
+        // Given
+        populate(source, 13, 250);
+        populate(target, 2, 5);
+        byte[] snapshot = dump(source, 16);
+
+        // When
+        SnapshotCounts counts = new SnapshotLoader(target, executor, THREADS, 7)
+                .load(Channels.newChannel(new ByteArrayInputStream(snapshot)));
+
+        // Then
+        assertEquals(250, counts.greetings());
+        assertEquals(13, counts.names());
+        assertEquals(rows(source, "SELECT * FROM greetings ORDER BY id"), rows(target, "SELECT * FROM greetings ORDER BY id"));
+        assertEquals(rows(source, "SELECT * FROM names ORDER BY id"), rows(target, "SELECT * FROM names ORDER BY id"));
+    }
+
+    @Test
+    void testLoadRebuildsIndexAndRestartsIdentity() throws Exception {
+        // Given
+        populate(source, 3, 40);
+        byte[] snapshot = dump(source, 8);
+
+        // When
+        new SnapshotLoader(target, executor, THREADS, 5).load(Channels.newChannel(new ByteArrayInputStream(snapshot)));
+
+        // Then
+        assertEquals(1, rows(target, "SELECT index_name FROM information_schema.indexes WHERE LOWER(index_name) = '"
+                + SnapshotLoader.NAME_INDEX + "'").size());
+        try (Connection connection = target.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO greetings (name_id, greeting_type, created_at) VALUES (1, 0, CURRENT_TIMESTAMP)");
+            statement.executeUpdate("INSERT INTO names (name) VALUES ('New')");
+        }
+        assertEquals(List.of("41|"), rows(target, "SELECT MAX(id) FROM greetings"));
+        assertEquals(List.of("4|"), rows(target, "SELECT MAX(id) FROM names"));
+    }
+
+    @Test
+    void testEmptyDatasetRoundTrips() throws Exception {
+        // Given
+        byte[] snapshot = dump(source, 8);
+
+        // When
+        SnapshotCounts counts = new SnapshotLoader(target, executor, THREADS, 5)
+                .load(Channels.newChannel(new ByteArrayInputStream(snapshot)));
+
+        // Then
+        assertEquals(0, counts.greetings());
+        assertEquals(0, counts.names());
+    }
+
+    @Test
+    void testInvalidSnapshotLeavesTablesUntouched() throws Exception {
+        // Given
+        populate(target, 2, 5);
+        byte[] garbage = "not a snapshot".getBytes();
+
+        // When
+        assertThrows(IOException.class, () -> new SnapshotLoader(target, executor, THREADS, 5)
+                .load(Channels.newChannel(new ByteArrayInputStream(garbage))));
+
+        // Then
+        assertEquals(5, rows(target, "SELECT * FROM greetings").size());
+    }
+
+    @Test
+    void testCorruptOrTruncatedSnapshotLeavesTablesUntouched() throws Exception {
+        // Given
+        populate(source, 13, 250);
+        populate(target, 2, 5);
+        byte[] snapshot = dump(source, 16);
+        byte[] corrupt = snapshot.clone();
+        corrupt[corrupt.length - 10] ^= 0x55;
+        byte[] truncated = Arrays.copyOf(snapshot, snapshot.length - 1);
+        List<String> before = rows(target, "SELECT * FROM greetings ORDER BY id");
+
+        // When
+        assertThrows(IOException.class, () -> new SnapshotLoader(target, executor, THREADS, 7)
+                .load(Channels.newChannel(new ByteArrayInputStream(corrupt))));
+        assertThrows(IOException.class, () -> new SnapshotLoader(target, executor, THREADS, 7)
+                .load(Channels.newChannel(new ByteArrayInputStream(truncated))));
+
+        // Then
+        assertEquals(before, rows(target, "SELECT * FROM greetings ORDER BY id"));
+        assertEquals(2, rows(target, "SELECT * FROM names").size());
+        assertEquals(List.of(), rows(target, "SELECT table_name FROM information_schema.tables "
+                + "WHERE LOWER(table_name) LIKE 'snapshot_%'"));
+    }
+
+    @Test
+    void testOversizedBlockIsRejected() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SnapshotFormat.writeHeader(Channels.newChannel(out));
+        out.write(ByteBuffer.allocate(SnapshotFormat.FRAME_BYTES).put(SnapshotFormat.GREETINGS)
+                .putInt(1).putInt(Integer.MAX_VALUE).putInt(Integer.MAX_VALUE).putInt(0).array());
+
+        // When
+        IOException e = assertThrows(IOException.class, () -> new SnapshotLoader(target, executor, THREADS, 5)
+                .load(Channels.newChannel(new ByteArrayInputStream(out.toByteArray()))));
+
+        // Then
+        assertEquals("Snapshot block header is corrupt", e.getMessage());
+    }
+
+    @Test
+    void testUnknownNameIdsAreRejected() throws Exception {
+        // Given
+        populate(source, 3, 10);
+        try (Connection connection = source.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM names WHERE id = 2");
+        }
+        populate(target, 2, 5);
+        byte[] snapshot = dump(source, 4);
+
+        // When
+        IOException e = assertThrows(IOException.class, () -> new SnapshotLoader(target, executor, THREADS, 5)
+                .load(Channels.newChannel(new ByteArrayInputStream(snapshot))));
+
+        // Then
+        assertTrue(e.getMessage().contains("unknown name ids"));
+        assertEquals(5, rows(target, "SELECT * FROM greetings").size());
+        assertEquals(1, rows(target, "SELECT index_name FROM information_schema.indexes WHERE LOWER(index_name) = '"
+                + SnapshotLoader.NAME_INDEX + "'").size());
+    }
+}